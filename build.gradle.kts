@@ -5,6 +5,7 @@ plugins {
     id("jacoco")
     id("org.springframework.boot") version "3.0.6"
     id("io.spring.dependency-management") version "1.1.0"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "faang.school"
@@ -24,6 +25,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.cloud:spring-cloud-starter-openfeign:4.0.2")
     annotationProcessor("org.springframework.boot:spring-boot-configuration-processor")
 
@@ -32,6 +34,7 @@ dependencies {
      */
     implementation("org.liquibase:liquibase-core")
     implementation("redis.clients:jedis:4.3.2")
+    implementation("com.github.ben-manes.caffeine:caffeine")
     runtimeOnly("org.postgresql:postgresql")
     implementation("org.springframework.kafka:spring-kafka")
     /**
@@ -106,6 +109,15 @@ tasks.withType<Test> {
 
 val test by tasks.getting(Test::class) { testLogging.showStandardStreams = true }
 
+/**
+ * JMH benchmarks (src/jmh/java), run with ./gradlew jmh
+ */
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+}
+
 tasks.bootJar {
     archiveFileName.set("service.jar")
 }
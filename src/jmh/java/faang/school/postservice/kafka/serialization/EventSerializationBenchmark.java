@@ -0,0 +1,103 @@
+package faang.school.postservice.kafka.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.kafka.events.PostFollowersEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON and binary formats of a PostFollowersEvent. Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EventSerializationBenchmark {
+    private static final String TOPIC = "posts";
+
+    @Param({"1000", "100000"})
+    private int followerCount;
+
+    private Serializer<Object> jsonSerializer;
+    private Deserializer<Object> jsonDeserializer;
+    private Serializer<Object> binarySerializer;
+    private Deserializer<Object> binaryDeserializer;
+
+    private PostFollowersEvent event;
+    private RecordHeaders jsonHeaders;
+    private byte[] jsonPayload;
+    private byte[] binaryPayload;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var objectMapper = new ObjectMapper().findAndRegisterModules();
+        var serde = new KafkaEventSerde("binary", objectMapper);
+
+        jsonSerializer = new JsonSerializer<>(objectMapper);
+        jsonDeserializer = new JsonDeserializer<>(objectMapper);
+        jsonDeserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "faang.school.postservice.*"), false);
+        binarySerializer = serde.serializer();
+        binaryDeserializer = serde.deserializer();
+
+        event = new PostFollowersEvent(42L, 1_000_000L, followerIds(followerCount), LocalDateTime.now(),
+                0, 1, followerCount);
+        jsonHeaders = new RecordHeaders();
+        jsonPayload = jsonSerializer.serialize(TOPIC, jsonHeaders, event);
+        binaryPayload = binarySerializer.serialize(TOPIC, event);
+
+        System.out.printf("%n%d followers: json %d bytes, binary %d bytes%n",
+                followerCount, jsonPayload.length, binaryPayload.length);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return jsonDeserializer.deserialize(TOPIC, jsonHeaders, jsonPayload);
+    }
+
+    @Benchmark
+    public Object deserializeBinary() {
+        return binaryDeserializer.deserialize(TOPIC, binaryPayload);
+    }
+
+    /**
+     * Ascending user ids with random gaps.
+     */
+    private static List<Long> followerIds(int count) {
+        var random = new Random(7);
+        var ids = new ArrayList<Long>(count);
+        long id = 100_000;
+        for (int i = 0; i < count; i++) {
+            id += 1 + random.nextInt(50);
+            ids.add(id);
+        }
+        return ids;
+    }
+}
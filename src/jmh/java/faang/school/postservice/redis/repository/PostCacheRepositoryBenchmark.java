@@ -0,0 +1,126 @@
+package faang.school.postservice.redis.repository;
+
+import faang.school.postservice.redis.codec.PostCacheCodec;
+import faang.school.postservice.redis.model.PostCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisKeyValueAdapter;
+import org.springframework.data.redis.core.RedisKeyValueTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.convert.KeyspaceConfiguration;
+import org.springframework.data.redis.core.convert.MappingConfiguration;
+import org.springframework.data.redis.core.index.IndexConfiguration;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the hash codec repository with the Spring Data {@code @RedisHash} mapping it replaced, for save and
+ * findAllById of 20, 100 and 500 posts. The Spring Data side is configured as the old entity was: keyspace with a
+ * one day ttl, which keeps the keyspace index set and phantom expiry keys. Needs a Redis reachable at
+ * {@code -Dredis.host} / {@code -Dredis.port} (localhost:6379 by default); benchmark keys use their own prefixes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PostCacheRepositoryBenchmark {
+    private static final String CODEC_KEY_PREFIX = "bench-posts-codec:";
+    private static final String REDIS_HASH_KEYSPACE = "bench-posts-redis-hash";
+    private static final long TTL_SECONDS = 86400L;
+
+    @Param({"20", "100", "500"})
+    private int idCount;
+
+    private JedisConnectionFactory connectionFactory;
+    private PostCacheRepository codecRepository;
+    private RedisKeyValueTemplate keyValueTemplate;
+    private RedisKeyValueAdapter keyValueAdapter;
+
+    private List<PostCache> posts;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"), Integer.getInteger("redis.port", 6379)));
+        connectionFactory.afterPropertiesSet();
+
+        var stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        var writeScript = RedisScript.of(new ClassPathResource("scripts/hash_cache_write.lua"), Long.class);
+        codecRepository = new PostCacheRepository(stringRedisTemplate, writeScript,
+                new PostCacheCodec("likes", "views"), CODEC_KEY_PREFIX, TTL_SECONDS);
+
+        var keyspaceSettings = new KeyspaceConfiguration.KeyspaceSettings(PostCache.class, REDIS_HASH_KEYSPACE);
+        keyspaceSettings.setTimeToLive(TTL_SECONDS);
+        var keyspaceConfiguration = new KeyspaceConfiguration();
+        keyspaceConfiguration.addKeyspaceSettings(keyspaceSettings);
+        var mappingContext = new RedisMappingContext(
+                new MappingConfiguration(new IndexConfiguration(), keyspaceConfiguration));
+
+        var bytesTemplate = new RedisTemplate<byte[], byte[]>();
+        bytesTemplate.setConnectionFactory(connectionFactory);
+        bytesTemplate.afterPropertiesSet();
+        keyValueAdapter = new RedisKeyValueAdapter(bytesTemplate, mappingContext);
+        keyValueAdapter.afterPropertiesSet();
+        keyValueTemplate = new RedisKeyValueTemplate(keyValueAdapter, mappingContext);
+
+        ids = LongStream.rangeClosed(1, idCount).boxed().toList();
+        posts = new ArrayList<>(idCount);
+        ids.forEach(id -> posts.add(PostCache.builder()
+                .id(id)
+                .content("Post content number " + id)
+                .authorId(id % 50)
+                .likes((int) (id * 3))
+                .views((int) (id * 17))
+                .build()));
+
+        codecRepository.saveAll(posts);
+        posts.forEach(keyValueTemplate::update);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        keyValueAdapter.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public List<PostCache> saveCodec() {
+        codecRepository.saveAll(posts);
+        return posts;
+    }
+
+    @Benchmark
+    public List<PostCache> saveRedisHash() {
+        posts.forEach(keyValueTemplate::update);
+        return posts;
+    }
+
+    @Benchmark
+    public List<PostCache> findAllByIdCodec() {
+        return codecRepository.findAllById(ids);
+    }
+
+    @Benchmark
+    public List<PostCache> findAllByIdRedisHash() {
+        var found = new ArrayList<PostCache>(ids.size());
+        ids.forEach(id -> keyValueTemplate.findById(id, PostCache.class).ifPresent(found::add));
+        return found;
+    }
+}
@@ -12,6 +12,9 @@ public class FeignUserInterceptor implements RequestInterceptor {
 
     @Override
     public void apply(RequestTemplate template) {
-        template.header("x-user-id", String.valueOf(userContext.getUserId()));
+        // background work (batch writers, cache refreshes) calls the user service without a user
+        if (userContext.hasUserId()) {
+            template.header("x-user-id", String.valueOf(userContext.getUserId()));
+        }
     }
 }
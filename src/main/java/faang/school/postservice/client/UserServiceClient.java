@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
@@ -28,4 +29,10 @@ public interface UserServiceClient {
 
     @GetMapping("/users")
     List<UserDto> getAllUsers();
+
+    /**
+     * Keyset page of users ordered by id: up to size users with id greater than afterId.
+     */
+    @GetMapping("/users/page")
+    List<UserDto> getUsersPage(@RequestParam("afterId") long afterId, @RequestParam("size") int size);
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -19,6 +20,14 @@ public class AsyncConfig {
     private int queueCapacity;
     @Value("${spring.app.async.hash_generator.thread_name_prefix}")
     private String threadNamePrefix;
+    @Value("${spring.app.async.heat.pool_size:4}")
+    private int heatPoolSize;
+    @Value("${spring.app.async.heat.queue_capacity:8}")
+    private int heatQueueCapacity;
+    @Value("${spring.app.async.likers.pool_size:8}")
+    private int likersPoolSize;
+    @Value("${spring.app.async.likers.queue_capacity:32}")
+    private int likersQueueCapacity;
 
     @Bean
     public Executor taskExecutor() {
@@ -30,4 +39,52 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Runs feed heat batches. The short queue and caller-runs policy throttle the heater instead of letting it
+     * queue up the whole user base.
+     */
+    @Bean
+    public Executor heatExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(heatPoolSize);
+        executor.setMaxPoolSize(heatPoolSize);
+        executor.setQueueCapacity(heatQueueCapacity);
+        executor.setThreadNamePrefix("HeatExecutor-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs whole feed heat jobs, one at a time, so a job that walks every user never holds a thread of the shared
+     * task executor that cache refreshes run on. The one queued slot covers a job started right after the previous
+     * one released its lease but before its thread returned.
+     */
+    @Bean
+    public Executor heatJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("HeatJobExecutor-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the user-service lookups of liker pages. The pool bounds how many lookups run at once across all
+     * requests; once it is saturated the request thread does the lookup itself.
+     */
+    @Bean
+    public Executor likersExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(likersPoolSize);
+        executor.setMaxPoolSize(likersPoolSize);
+        executor.setQueueCapacity(likersQueueCapacity);
+        executor.setThreadNamePrefix("LikersExecutor-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
 }
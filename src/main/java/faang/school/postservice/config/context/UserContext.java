@@ -2,6 +2,8 @@ package faang.school.postservice.config.context;
 
 import org.springframework.stereotype.Component;
 
+import java.util.function.Supplier;
+
 @Component
 public class UserContext {
 
@@ -18,4 +20,26 @@ public class UserContext {
     public void clear() {
         userIdHolder.remove();
     }
+
+    public boolean hasUserId() {
+        return userIdHolder.get() != null;
+    }
+
+    /**
+     * Wraps a task handed to another thread so it runs as the user of the calling thread.
+     */
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        var userId = userIdHolder.get();
+        if (userId == null) {
+            return task;
+        }
+        return () -> {
+            userIdHolder.set(userId);
+            try {
+                return task.get();
+            } finally {
+                userIdHolder.remove();
+            }
+        };
+    }
 }
@@ -1,5 +1,7 @@
 package faang.school.postservice.config.kafka;
 
+import faang.school.postservice.kafka.serialization.KafkaEventSerde;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -11,6 +13,7 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.util.backoff.FixedBackOff;
@@ -21,23 +24,55 @@ import java.util.Map;
 @Configuration
 @EnableKafka
 @Slf4j
+@RequiredArgsConstructor
 public class KafkaConsumersConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
+    @Value("${spring.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+    @Value("${spring.kafka.consumer.fetch-min-bytes:1}")
+    private int fetchMinBytes;
+    @Value("${spring.kafka.consumer.fetch-max-wait-ms:500}")
+    private int fetchMaxWaitMs;
+
+    private final KafkaEventSerde kafkaEventSerde;
 
     @Bean
     public ConsumerFactory<String, Object> consumerFactory(){
-        Map<String, Object> configs = new HashMap<>();
-        configs.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configs.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configs.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        return new DefaultKafkaConsumerFactory<>(configs);
+        return new DefaultKafkaConsumerFactory<>(baseConsumerConfigs(), StringDeserializer::new,
+                kafkaEventSerde::deserializer);
+    }
+
+    /**
+     * Consumer used by batch listeners. A poll returns up to max-poll-records records; fetch-min-bytes and
+     * fetch-max-wait-ms let the broker wait for a fuller batch when the topic is quiet.
+     */
+    @Bean
+    public ConsumerFactory<String, Object> batchConsumerFactory(){
+        Map<String, Object> configs = baseConsumerConfigs();
+        configs.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        configs.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        configs.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        return new DefaultKafkaConsumerFactory<>(configs, StringDeserializer::new, kafkaEventSerde::deserializer);
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(){
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        factory.setCommonErrorHandler(errorHandler());
+
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(){
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
 
         factory.setCommonErrorHandler(errorHandler());
 
@@ -56,4 +91,12 @@ public class KafkaConsumersConfig {
 
         return errorHandler;
     }
+
+    private Map<String, Object> baseConsumerConfigs() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configs.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configs.put(JsonDeserializer.TRUSTED_PACKAGES, "faang.school.postservice.*");
+        return configs;
+    }
 }
\ No newline at end of file
@@ -17,7 +17,7 @@ public class KafkaTopicConfig {
     private String bootstrapServers;
     @Value("${spring.kafka.topic-name.likes:likes}")
     private String likesTopic;
-    @Value("${spring.kafka.topic-name.post-views-topic:post_views}")
+    @Value("${spring.kafka.topic-name.post-views:post_views}")
     private String postViewsTopic;
     @Value("${spring.kafka.topic-name.comments:comments}")
     private String commentsTopic;
@@ -27,8 +27,18 @@ public class KafkaTopicConfig {
     private String heatPostsTopic;
     @Value("${spring.kafka.topic-name.heat-feed:heat_feed}")
     private String heatFeedsTopic;
-    @Value("${spring.kafka.topics.partitions}")
-    private int partitionCount;
+    @Value("${spring.kafka.topics.partitions.likes:1}")
+    private int likesPartitions;
+    @Value("${spring.kafka.topics.partitions.post-views:1}")
+    private int postViewsPartitions;
+    @Value("${spring.kafka.topics.partitions.comments:1}")
+    private int commentsPartitions;
+    @Value("${spring.kafka.topics.partitions.posts:1}")
+    private int postsPartitions;
+    @Value("${spring.kafka.topics.partitions.heat-posts:1}")
+    private int heatPostsPartitions;
+    @Value("${spring.kafka.topics.partitions.heat-feed:1}")
+    private int heatFeedPartitions;
     @Value("${spring.kafka.topics.replicas}")
     private int replicaCount;
 
@@ -42,50 +52,47 @@ public class KafkaTopicConfig {
     @Bean
     public NewTopic likesTopic(){
         return TopicBuilder.name(likesTopic)
-                .partitions(partitionCount)
+                .partitions(likesPartitions)
                 .replicas(replicaCount)
-                .compact()
                 .build();
     }
     @Bean
     public NewTopic postViewsTopic(){
         return TopicBuilder.name(postViewsTopic)
-                .partitions(partitionCount)
+                .partitions(postViewsPartitions)
                 .replicas(replicaCount)
-                .compact()
                 .build();
     }
 
     @Bean
     public NewTopic commentsTopic(){
         return TopicBuilder.name(commentsTopic)
-                .partitions(partitionCount)
+                .partitions(commentsPartitions)
                 .replicas(replicaCount)
-                .compact()
                 .build();
     }
 
     @Bean
     public NewTopic postTopic(){
         return TopicBuilder.name(postsTopic)
-                .partitions(partitionCount)
+                .partitions(postsPartitions)
                 .replicas(replicaCount)
-                .compact()
                 .build();
     }
 
     @Bean
     public NewTopic heatPostsTopic(){
         return TopicBuilder.name(heatPostsTopic)
-                .partitions(partitionCount)
+                .partitions(heatPostsPartitions)
                 .replicas(replicaCount)
                 .compact()
                 .build();
     }
 
+    @Bean
     public NewTopic heatFeedsTopic(){
         return TopicBuilder.name(heatFeedsTopic)
-                .partitions(partitionCount)
+                .partitions(heatFeedPartitions)
                 .replicas(replicaCount)
                 .compact()
                 .build();
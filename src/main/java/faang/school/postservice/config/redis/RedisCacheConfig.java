@@ -2,11 +2,15 @@ package faang.school.postservice.config.redis;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+
 @Configuration
 public class RedisCacheConfig {
     @Bean
@@ -17,4 +21,45 @@ public class RedisCacheConfig {
         template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * Standalone Redis only: the script reads author and comment ring keys it builds itself, see
+     * {@link RedisConfig#redisConnectionFactory()}.
+     */
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public RedisScript<List> feedHydrationScript() {
+        return RedisScript.of(new ClassPathResource("scripts/feed_hydration.lua"), List.class);
+    }
+
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public RedisScript<List> incrementIfExistsScript() {
+        return RedisScript.of(new ClassPathResource("scripts/increment_if_exists.lua"), List.class);
+    }
+
+    @Bean
+    public RedisScript<Long> hashCacheWriteScript() {
+        return RedisScript.of(new ClassPathResource("scripts/hash_cache_write.lua"), Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> commentRingScript() {
+        return RedisScript.of(new ClassPathResource("scripts/comment_ring_add.lua"), Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> leaseRenewScript() {
+        return RedisScript.of(new ClassPathResource("scripts/lease_renew.lua"), Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> leaseReleaseScript() {
+        return RedisScript.of(new ClassPathResource("scripts/lease_release.lua"), Long.class);
+    }
+
+    @Bean
+    public RedisScript<Long> setAddWithTtlScript() {
+        return RedisScript.of(new ClassPathResource("scripts/set_add_with_ttl.lua"), Long.class);
+    }
+}
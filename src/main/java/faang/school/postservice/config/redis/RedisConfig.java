@@ -1,5 +1,6 @@
 package faang.school.postservice.config.redis;
 
+import faang.school.postservice.listener.CacheInvalidationListener;
 import faang.school.postservice.listener.LikeEventListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -28,6 +29,15 @@ public class RedisConfig {
     @Value("${spring.data.redis.channels.like_post_channel.name.comment_channel")
     private String commentTopicName;
 
+    @Value("${spring.data.redis.channels.cache_invalidation_channel.name:cache_invalidation_channel}")
+    private String cacheInvalidationTopicName;
+
+    /**
+     * The service runs against a standalone Redis. Several cache scripts (feed_hydration.lua, hash_cache_write.lua,
+     * increment_if_exists.lua, comment_ring_add.lua) touch keys of different posts and authors in one call, and
+     * feed_hydration.lua derives author and comment ring keys that are not declared in KEYS. Moving to Redis Cluster
+     * requires hash-tagging these keys or splitting the scripts per slot first.
+     */
     @Bean
     public JedisConnectionFactory redisConnectionFactory() {
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(host, port);
@@ -44,11 +54,13 @@ public class RedisConfig {
     }
 
     @Bean
-    RedisMessageListenerContainer container(MessageListenerAdapter listenerAdapter) {
+    RedisMessageListenerContainer container(MessageListenerAdapter listenerAdapter,
+                                            CacheInvalidationListener cacheInvalidationListener) {
 
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(redisConnectionFactory());
         container.addMessageListener(listenerAdapter, new ChannelTopic("postLikes"));
+        container.addMessageListener(cacheInvalidationListener, new ChannelTopic(cacheInvalidationTopicName));
 
         return container;
     }
@@ -1,43 +1,55 @@
 package faang.school.postservice.controller.feed;
 
 import faang.school.postservice.config.context.UserContext;
-import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.dto.feed.FeedPageDto;
+import faang.school.postservice.dto.feed.HeatJobDto;
 import faang.school.postservice.redis.service.FeedCacheService;
-import faang.school.postservice.redis.service.FeedHeatService;
+import faang.school.postservice.redis.service.HeatJobService;
 import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api")
 @Slf4j
 public class FeedController {
     private final FeedCacheService feedCacheService;
-    private final FeedHeatService feedHeatService;
+    private final HeatJobService heatJobService;
     private final UserContext userContext;
 
     @GetMapping("/feed")
-    public ResponseEntity<List<PostDto>> getUserFeed(@Nullable @RequestParam("postId") Long postId) {
+    public ResponseEntity<FeedPageDto> getUserFeed(@Nullable @RequestParam(value = "cursor", required = false)
+                                                   String cursor) {
         var userId = userContext.getUserId();
-        List<PostDto> userFeed = feedCacheService.getFeedByUserId(postId, userId);
+        FeedPageDto userFeed = feedCacheService.getFeedByUserId(userId, cursor);
 
-        if (userFeed.isEmpty()) {
+        if (userFeed.posts().isEmpty()) {
             return ResponseEntity.noContent().build();
         }
 
         return ResponseEntity.ok(userFeed);
     }
 
-    @GetMapping("/heat")
-    public void sendHeatEventsAsync() {
-        feedHeatService.sendHeatEvents();
+    @PostMapping("/heat")
+    public ResponseEntity<HeatJobDto> startHeatJob() {
+        return ResponseEntity.accepted().body(heatJobService.startJob());
+    }
+
+    @GetMapping("/heat/current")
+    public ResponseEntity<HeatJobDto> getCurrentHeatJob() {
+        return ResponseEntity.of(heatJobService.getCurrentJob());
+    }
+
+    @GetMapping("/heat/{jobId}")
+    public ResponseEntity<HeatJobDto> getHeatJob(@PathVariable String jobId) {
+        return ResponseEntity.of(heatJobService.getJob(jobId));
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package faang.school.postservice.controller.handler;
 
+import faang.school.postservice.exception.DuplicateLikeException;
 import faang.school.postservice.exception.ErrorResponse;
+import faang.school.postservice.exception.HeatJobConflictException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +16,7 @@ import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.springframework.http.HttpStatus.*;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
@@ -53,6 +56,42 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    @ExceptionHandler(HeatJobConflictException.class)
+    @ResponseStatus(CONFLICT)
+    public ErrorResponse handleHeatJobConflictException(HeatJobConflictException ex) {
+        log.warn("Heat job conflict: {}", ex.getMessage());
+
+        return ErrorResponse.builder()
+                .message(ex.getMessage())
+                .status(CONFLICT.value())
+                .error(CONFLICT.getReasonPhrase())
+                .build();
+    }
+
+    @ExceptionHandler(DuplicateLikeException.class)
+    @ResponseStatus(CONFLICT)
+    public ErrorResponse handleDuplicateLikeException(DuplicateLikeException ex) {
+        log.warn("Duplicate like: {}", ex.getMessage());
+
+        return ErrorResponse.builder()
+                .message(ex.getMessage())
+                .status(CONFLICT.value())
+                .error(CONFLICT.getReasonPhrase())
+                .build();
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(SERVICE_UNAVAILABLE)
+    public ErrorResponse handleRejectedExecutionException(RejectedExecutionException ex) {
+        log.warn("Request rejected: {}", ex.getMessage());
+
+        return ErrorResponse.builder()
+                .message(ex.getMessage())
+                .status(SERVICE_UNAVAILABLE.value())
+                .error(SERVICE_UNAVAILABLE.getReasonPhrase())
+                .build();
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(INTERNAL_SERVER_ERROR)
     public ErrorResponse handleGeneralException(Exception ex) {
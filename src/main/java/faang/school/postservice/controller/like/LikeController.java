@@ -1,19 +1,32 @@
 package faang.school.postservice.controller.like;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import faang.school.postservice.dto.like.LikeDto;
+import faang.school.postservice.dto.like.LikersPageDto;
 import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.service.like.LikeService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/v1/likes")
 @RequiredArgsConstructor
 public class LikeController {
+    @Value("${like-service.group-commit.enabled:false}")
+    private boolean groupCommitEnabled;
+
     private final LikeService likeService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/comment")
     public LikeDto addCommentLike(@RequestBody @Valid LikeDto likeDto) {
@@ -26,8 +39,11 @@ public class LikeController {
     }
 
     @PostMapping("/post")
-    public LikeDto addPostLike(@RequestBody @Valid LikeDto likeDto) {
-        return likeService.addPostLike(likeDto);
+    public CompletableFuture<LikeDto> addPostLike(@RequestBody @Valid LikeDto likeDto) {
+        if (groupCommitEnabled) {
+            return likeService.submitPostLike(likeDto);
+        }
+        return CompletableFuture.completedFuture(likeService.addPostLike(likeDto));
     }
 
     @DeleteMapping("user/{userId}/post/{postId}")
@@ -35,13 +51,49 @@ public class LikeController {
         likeService.deletePostLike(likeDto);
     }
 
+    /**
+     * Streams all likers of the post as one JSON array, written page by page.
+     */
     @GetMapping("/post/{postId}")
-    public List<UserDto> getUsersByPostId(@PathVariable Long postId) {
-        return likeService.findUsersByPostId(postId);
+    public void getUsersByPostId(@PathVariable Long postId, HttpServletResponse response) throws IOException {
+        streamLikers(response, pageConsumer -> likeService.forEachPostLikersPage(postId, pageConsumer));
     }
 
     @GetMapping("/comment/{commentId}")
-    public List<UserDto> getUsersByCommentId(@PathVariable Long commentId) {
-        return likeService.findUsersByCommentId(commentId);
+    public void getUsersByCommentId(@PathVariable Long commentId, HttpServletResponse response) throws IOException {
+        streamLikers(response, pageConsumer -> likeService.forEachCommentLikersPage(commentId, pageConsumer));
+    }
+
+    @GetMapping("/post/{postId}/likers")
+    public LikersPageDto getPostLikers(@PathVariable Long postId,
+                                       @RequestParam(required = false) Long after,
+                                       @RequestParam(defaultValue = "100") int limit) {
+        return likeService.findPostLikers(postId, after, limit);
+    }
+
+    @GetMapping("/comment/{commentId}/likers")
+    public LikersPageDto getCommentLikers(@PathVariable Long commentId,
+                                          @RequestParam(required = false) Long after,
+                                          @RequestParam(defaultValue = "100") int limit) {
+        return likeService.findCommentLikers(commentId, after, limit);
+    }
+
+    private void streamLikers(HttpServletResponse response, Consumer<Consumer<List<UserDto>>> likersWalker)
+            throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (var generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            likersWalker.accept(users -> {
+                try {
+                    for (UserDto user : users) {
+                        generator.writeObject(user);
+                    }
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
     }
 }
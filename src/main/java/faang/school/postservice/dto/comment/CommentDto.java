@@ -32,6 +32,8 @@ public class CommentDto {
 
     private List<LikeDto> likes;
 
+    private Integer likeCount;
+
     @NotNull(message = "Post cant be null")
     private Long postId;
 
@@ -0,0 +1,30 @@
+package faang.school.postservice.dto.feed;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last post a client has seen in its feed. Handed out as an opaque token,
+ * so clients never depend on the (score, postId) layout.
+ */
+public record FeedCursor(
+        double score,
+        long postId
+) {
+    private static final String SEPARATOR = ":";
+
+    public String encode() {
+        var raw = score + SEPARATOR + postId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FeedCursor decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var parts = raw.split(SEPARATOR);
+            return new FeedCursor(Double.parseDouble(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid feed cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package faang.school.postservice.dto.feed;
+
+import faang.school.postservice.dto.post.PostDto;
+
+import java.util.List;
+
+public record FeedPageDto(
+        List<PostDto> posts,
+        String nextCursor
+) {}
@@ -0,0 +1,21 @@
+package faang.school.postservice.dto.feed;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a feed heat job. Throughput is measured from the start of the job up to its end,
+ * or up to now while it is still running.
+ */
+@Builder
+public record HeatJobDto(
+        String jobId,
+        HeatJobStatus status,
+        long usersProcessed,
+        long eventsSent,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        double usersPerSecond,
+        double eventsPerSecond
+) {}
@@ -0,0 +1,7 @@
+package faang.school.postservice.dto.feed;
+
+public enum HeatJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,10 @@
+package faang.school.postservice.dto.like;
+
+import faang.school.postservice.dto.user.UserDto;
+
+import java.util.List;
+
+public record LikersPageDto(
+        List<UserDto> users,
+        Long nextCursor
+) {}
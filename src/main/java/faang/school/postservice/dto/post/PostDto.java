@@ -1,6 +1,7 @@
 package faang.school.postservice.dto.post;
 
 import faang.school.postservice.dto.comment.CommentDto;
+import faang.school.postservice.dto.user.AuthorDto;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -25,6 +26,7 @@ public class PostDto {
     @Min(value = 0, message = "АйДи автора должно быть положительным.")
     @NotNull(message = "АйДи автора не может быть пустым.")
     private Long authorId;
+    private AuthorDto author;
     @Min(value = 0, message = "АйДи проекта должно быть положительным.")
     @NotNull(message = "АйДи проекта не может быть пустым.")
     private Long projectId;
@@ -32,6 +34,7 @@ public class PostDto {
 
     private Integer likes;
     private Integer views;
+    private Integer commentCount;
     private List<CommentDto> comments;
 
     LocalDateTime publishedAt;
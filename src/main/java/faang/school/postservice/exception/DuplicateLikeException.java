@@ -0,0 +1,7 @@
+package faang.school.postservice.exception;
+
+public class DuplicateLikeException extends RuntimeException {
+    public DuplicateLikeException(String message) {
+        super(message);
+    }
+}
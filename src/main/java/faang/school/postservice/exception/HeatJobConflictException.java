@@ -0,0 +1,7 @@
+package faang.school.postservice.exception;
+
+public class HeatJobConflictException extends RuntimeException {
+    public HeatJobConflictException(String message) {
+        super(message);
+    }
+}
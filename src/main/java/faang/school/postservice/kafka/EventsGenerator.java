@@ -9,23 +9,56 @@ import faang.school.postservice.kafka.events.PostLikeEvent;
 import faang.school.postservice.kafka.events.PostViewEvent;
 import faang.school.postservice.kafka.producer.KafkaEventProducer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class EventsGenerator {
+    @Value("${spring.kafka.post-followers-event.chunk-size:1000}")
+    private int followersChunkSize;
+    @Value("${spring.data.redis.feed-cache.celebrity-threshold:10000}")
+    private int celebrityThreshold;
+
     private final KafkaEventProducer kafkaEventProducer;
     private final UserServiceClient userServiceClient;
 
+    /**
+     * Splits the author's followers into chunks of followersChunkSize, each sent as its own event so the fan-out
+     * spreads over partitions. Celebrity posts are pulled on read, so they get one chunk carrying only the count.
+     */
     public void savePostCacheAndSendPostFollowersEvent(PostDto postDto){
         var author = userServiceClient.getUser(postDto.getAuthorId());
-        var event = PostFollowersEvent.builder()
+        var followers = author.getFollowers() == null ? List.<Long>of() : author.getFollowers();
+
+        if (followers.size() > celebrityThreshold) {
+            kafkaEventProducer.sendPostFollowersEvent(buildPostFollowersEvent(postDto, List.of(), 0, 1,
+                    followers.size()));
+            return;
+        }
+
+        var chunkCount = (followers.size() + followersChunkSize - 1) / followersChunkSize;
+        for (int chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++) {
+            var from = chunkIndex * followersChunkSize;
+            var chunk = List.copyOf(followers.subList(from, Math.min(from + followersChunkSize, followers.size())));
+            kafkaEventProducer.sendPostFollowersEvent(buildPostFollowersEvent(postDto, chunk, chunkIndex, chunkCount,
+                    followers.size()));
+        }
+    }
+
+    private PostFollowersEvent buildPostFollowersEvent(PostDto postDto, List<Long> followersIds, int chunkIndex,
+                                                       int chunkCount, int followersCount) {
+        return PostFollowersEvent.builder()
                 .authorId(postDto.getAuthorId())
-                .followersIds(author.getFollowers())
+                .postId(postDto.getId())
+                .followersIds(followersIds)
                 .publishedAt(postDto.getPublishedAt())
+                .chunkIndex(chunkIndex)
+                .chunkCount(chunkCount)
+                .followersCount(followersCount)
                 .build();
-
-        kafkaEventProducer.sendPostFollowersEvent(event);
     }
 
     public void generateAndSendPostViewEvent(PostDto postDto){
@@ -35,10 +68,14 @@ public class EventsGenerator {
         kafkaEventProducer.sendPostViewEvent(event);
     }
 
-    public void generateAndSendLikeEvent(PostDto postDto){
+    /**
+     * Sends the likes a post got, a single one or a whole batch, as one event carrying their count.
+     */
+    public void generateAndSendLikeEvent(Long postId, Long authorId, int likes){
         var event = PostLikeEvent.builder()
-                .id(postDto.getId())
-                .authorId(postDto.getAuthorId())
+                .id(postId)
+                .authorId(authorId)
+                .likes(likes)
                 .build();
         kafkaEventProducer.sendLikeEvent(event);
     }
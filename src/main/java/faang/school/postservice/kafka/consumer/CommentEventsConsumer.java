@@ -4,10 +4,17 @@ import faang.school.postservice.kafka.events.CommentEvent;
 import faang.school.postservice.redis.service.PostCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -15,15 +22,20 @@ public class CommentEventsConsumer {
     private final PostCacheService postCacheService;
 
     @KafkaListener(topics = "${spring.kafka.topic-name.comments:comments}",
-            groupId = "${spring.kafka.consumer.group-id}")
-    void listener(CommentEvent event, Acknowledgment acknowledgment){
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${spring.kafka.topics.partitions.comments:1}",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    void listener(List<ConsumerRecord<String, CommentEvent>> records, Acknowledgment acknowledgment){
+        var commentsByPostId = records.stream()
+                .map(ConsumerRecord::value)
+                .collect(groupingBy(CommentEvent::postId, mapping(CommentEvent::commentDto, toList())));
         try {
-            postCacheService.addCommentToCachedPost(event.postId(), event.commentDto());
+            postCacheService.addCommentsToCachedPosts(commentsByPostId);
             acknowledgment.acknowledge();
-            log.info("Comment with id:{} is successfully added to post.", event.commentDto().getId());
+            log.info("{} comments are successfully added to {} posts.", records.size(), commentsByPostId.size());
         } catch (Exception e) {
-            log.error("Comment with id:{} is not added to post.", event.commentDto().getId());
+            log.error("{} comments are not added to posts with ids: {}", records.size(), commentsByPostId.keySet());
             throw e;
         }
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import faang.school.postservice.redis.service.FeedCacheService;
 import faang.school.postservice.redis.service.PostCacheService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -15,14 +16,18 @@ public class HeatEventsConsumer {
     private final FeedCacheService feedCacheService;
 
     @KafkaListener(topics = "${spring.kafka.topic-name.heat-posts:heat_posts}",
-            groupId = "${spring.kafka.consumer.group-id}")
-    void listener(PostDto event){
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${spring.kafka.topics.partitions.heat-posts:1}")
+    void listener(PostDto event, Acknowledgment acknowledgment){
         postCacheService.savePostCache(event);
+        acknowledgment.acknowledge();
     }
 
     @KafkaListener(topics = "${spring.kafka.topic-name.heat-feed:heat_feed}",
-            groupId = "${spring.kafka.consumer.group-id}")
-    void listener(FeedDto event){
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${spring.kafka.topics.partitions.heat-feed:1}")
+    void listener(FeedDto event, Acknowledgment acknowledgment){
         feedCacheService.saveUserFeedHeat(event);
+        acknowledgment.acknowledge();
     }
 }
\ No newline at end of file
@@ -4,10 +4,16 @@ import faang.school.postservice.kafka.events.PostLikeEvent;
 import faang.school.postservice.redis.service.PostCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingLong;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -15,15 +21,21 @@ public class LikeEventsConsumer {
     private final PostCacheService postCacheService;
 
     @KafkaListener(topics = "${spring.kafka.topic-name.likes:likes}",
-            groupId = "${spring.kafka.consumer.group-id}")
-    void listener(PostLikeEvent event, Acknowledgment acknowledgment){
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${spring.kafka.topics.partitions.likes:1}",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    void listener(List<ConsumerRecord<String, PostLikeEvent>> records, Acknowledgment acknowledgment){
+        // an event carries the number of likes it stands for; events sent before the count existed stand for one
+        var likesByPostId = records.stream()
+                .collect(groupingBy(record -> record.value().id(),
+                        summingLong(record -> record.value().likes() == null ? 1 : record.value().likes())));
         try {
-            postCacheService.incrementConcurrentPostLikes(event.id());
+            postCacheService.incrementPostLikes(likesByPostId);
             acknowledgment.acknowledge();
-            log.info("Like is added to post with id: " + event.id());
+            log.info("{} like events are added to {} posts.", records.size(), likesByPostId.size());
         } catch (Exception e) {
-            log.error("Like is not added to post with id: " + event.id());
+            log.error("{} likes are not added to posts with ids: {}", records.size(), likesByPostId.keySet());
             throw e;
         }
     }
-}
\ No newline at end of file
+}
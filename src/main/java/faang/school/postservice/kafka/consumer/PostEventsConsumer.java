@@ -15,10 +15,11 @@ public class PostEventsConsumer {
     private final FeedCacheService feedCacheService;
 
     @KafkaListener(topics = "${spring.kafka.topic-name.posts:posts}",
-            groupId = "${spring.kafka.consumer.group-id}")
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${spring.kafka.topics.partitions.posts:1}")
     void listener(PostFollowersEvent event, Acknowledgment acknowledgment){
         try {
-            feedCacheService.distributePostToFollowers(event.postId(), event.followersIds(), event.publishedAt());
+            feedCacheService.distributePostToFollowers(event);
             acknowledgment.acknowledge();
         } catch (Exception e) {
             log.error("Post with id:{} is not added to followers feeds.", event.postId());
@@ -1,19 +1,30 @@
 package faang.school.postservice.kafka.consumer;
 
 import faang.school.postservice.kafka.events.PostViewEvent;
-import faang.school.postservice.redis.service.PostCacheService;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+
 @Component
 @RequiredArgsConstructor
 public class PostViewEventsConsumer {
-    private final PostCacheService postCacheService;
+    private final PostViewsAggregator postViewsAggregator;
+
+    @KafkaListener(topics = "${spring.kafka.topic-name.post-views:post_views}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${spring.kafka.topics.partitions.post-views:1}",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    void listener(List<ConsumerRecord<String, PostViewEvent>> records, Acknowledgment acknowledgment){
+        var viewsByPostId = records.stream()
+                .collect(groupingBy(record -> record.value().postId(), counting()));
 
-    @KafkaListener(topics = "${spring.kafka.topic-name. post-views:post_views}",
-            groupId = "${spring.kafka.consumer.group-id}")
-    void listener(PostViewEvent event){
-        postCacheService.incrementConcurrentPostViews(event.postId());
+        postViewsAggregator.addViews(viewsByPostId, records.size(), acknowledgment);
     }
-}
\ No newline at end of file
+}
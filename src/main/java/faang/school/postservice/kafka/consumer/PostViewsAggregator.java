@@ -0,0 +1,112 @@
+package faang.school.postservice.kafka.consumer;
+
+import faang.school.postservice.redis.service.PostCacheService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for post views. Listener threads fold events into a LongAdder per post under the read lock;
+ * a flush swaps the buffer under the write lock and writes the deltas to Redis in one batch. Offsets are
+ * acknowledged only after the flush succeeds, so a crash replays the unflushed views instead of losing them.
+ */
+@Component
+@Slf4j
+public class PostViewsAggregator {
+    private final PostCacheService postCacheService;
+    private final int maxPendingEvents;
+
+    private final ReadWriteLock bufferLock = new ReentrantReadWriteLock();
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+    private Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private Queue<Acknowledgment> pendingAcknowledgments = new ConcurrentLinkedQueue<>();
+
+    public PostViewsAggregator(PostCacheService postCacheService,
+                               @Value("${spring.data.redis.post-cache.views-flush.max-events:1000}")
+                               int maxPendingEvents) {
+        this.postCacheService = postCacheService;
+        this.maxPendingEvents = maxPendingEvents;
+    }
+
+    /**
+     * Folds the views of one polled batch. The batch acknowledgment is held until the views are flushed.
+     */
+    public void addViews(Map<Long, Long> viewsByPostId, int events, Acknowledgment acknowledgment) {
+        bufferLock.readLock().lock();
+        try {
+            viewsByPostId.forEach((postId, views) ->
+                    pendingViews.computeIfAbsent(postId, id -> new LongAdder()).add(views));
+            pendingAcknowledgments.add(acknowledgment);
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+
+        if (pendingEvents.addAndGet(events) >= maxPendingEvents) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${spring.data.redis.post-cache.views-flush.interval-ms:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        Map<Long, LongAdder> views;
+        Queue<Acknowledgment> acknowledgments;
+
+        bufferLock.writeLock().lock();
+        try {
+            if (pendingViews.isEmpty()) {
+                return;
+            }
+            views = pendingViews;
+            acknowledgments = pendingAcknowledgments;
+            pendingViews = new ConcurrentHashMap<>();
+            pendingAcknowledgments = new ConcurrentLinkedQueue<>();
+            pendingEvents.set(0);
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+
+        var viewDeltas = new HashMap<Long, Long>();
+        views.forEach((postId, adder) -> viewDeltas.put(postId, adder.sum()));
+
+        try {
+            var failedDeltas = postCacheService.incrementPostViews(viewDeltas);
+            if (failedDeltas.isEmpty()) {
+                acknowledgments.forEach(Acknowledgment::acknowledge);
+                log.debug("Flushed views of {} posts.", viewDeltas.size());
+            } else {
+                // the applied views must not be replayed, so only the failed ones are kept and the offsets wait
+                log.warn("Views of {} of {} posts were not flushed, keeping them for the next flush.",
+                        failedDeltas.size(), viewDeltas.size());
+                restore(failedDeltas, acknowledgments);
+            }
+        } catch (Exception e) {
+            log.error("Failed to flush views of {} posts, keeping them for the next flush.", viewDeltas.size(), e);
+            restore(viewDeltas, acknowledgments);
+        }
+    }
+
+    private void restore(Map<Long, Long> viewDeltas, Queue<Acknowledgment> acknowledgments) {
+        bufferLock.readLock().lock();
+        try {
+            viewDeltas.forEach((postId, delta) ->
+                    pendingViews.computeIfAbsent(postId, id -> new LongAdder()).add(delta));
+            pendingAcknowledgments.addAll(acknowledgments);
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+    }
+}
@@ -1,10 +1,23 @@
 package faang.school.postservice.kafka.events;
 
-import faang.school.postservice.dto.post.PostDto;
-
+import java.util.Comparator;
 import java.util.List;
 
+/**
+ * Heat of one follower feed: the ids of the posts to put in the feed with their scores. Post bodies are warmed
+ * separately through the heat-posts topic.
+ */
 public record FeedDto(
         Long followerId,
-        List<PostDto> posts
-) {}
\ No newline at end of file
+        List<FeedEntry> entries
+) {
+    public record FeedEntry(
+            Long postId,
+            long score
+    ) {
+        public static final Comparator<FeedEntry> NEWEST_FIRST = Comparator
+                .comparingLong(FeedEntry::score)
+                .thenComparing(FeedEntry::postId)
+                .reversed();
+    }
+}
@@ -5,10 +5,17 @@ import lombok.Builder;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * One chunk of a post's followers. followersCount is the author's total follower count, so every chunk knows
+ * whether the author is above the celebrity threshold; for celebrities a single chunk without ids is sent.
+ */
 @Builder
 public record PostFollowersEvent(
         Long authorId,
         Long postId,
         List<Long> followersIds,
-        LocalDateTime publishedAt
-) {}
\ No newline at end of file
+        LocalDateTime publishedAt,
+        int chunkIndex,
+        int chunkCount,
+        int followersCount
+) {}
@@ -11,6 +11,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 public class KafkaEventProducer {
@@ -20,7 +22,7 @@ public class KafkaEventProducer {
     private String postViewsTopic;
     @Value("${spring.kafka.topic-name.comments:comments}")
     private String commentTopic;
-    @Value("${spring.kafka.topic-name.posts:likes}")
+    @Value("${spring.kafka.topic-name.likes:likes}")
     private String likeTopic;
     @Value("${spring.kafka.topic-name.heat-posts:heat_posts}")
     private String heatPostsTopic;
@@ -29,34 +31,49 @@ public class KafkaEventProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
+    /**
+     * Chunks of one post are keyed separately so they spread over partitions and fan out in parallel.
+     */
     public void sendPostFollowersEvent(PostFollowersEvent event) {
-        kafkaTemplate.send(postTopic, event);
+        kafkaTemplate.send(postTopic, event.postId() + ":" + event.chunkIndex(), event);
     }
 
     public void sendPostViewEvent(PostViewEvent event) {
-        kafkaTemplate.send(postViewsTopic, event);
+        kafkaTemplate.send(postViewsTopic, key(event.postId()), event);
     }
 
     public void sendCommentEvent(CommentEvent event){
-        kafkaTemplate.send(commentTopic, event);
+        kafkaTemplate.send(commentTopic, key(event.postId()), event);
     }
 
     public void sendLikeEvent(PostLikeEvent event){
-        kafkaTemplate.send(likeTopic, event);
+        kafkaTemplate.send(likeTopic, key(event.id()), event);
     }
 
-    public void sendFeedHeatEvent(FeedDto event) {
-         kafkaTemplate.send(heatFeedTopic, event)
+    /**
+     * Heat sends return their futures so the heat run can wait for the broker before it moves its checkpoint.
+     */
+    public CompletableFuture<Void> sendFeedHeatEvent(FeedDto event) {
+        return kafkaTemplate.send(heatFeedTopic, key(event.followerId()), event)
                 .thenRun(() -> {})
                 .exceptionally(ex -> {
                     throw new RuntimeException("Failed to send feed heat event", ex);
                 });
     }
-    public void sendPostHeatEvent(PostDto event) {
-        kafkaTemplate.send(heatPostsTopic, event)
+
+    public CompletableFuture<Void> sendPostHeatEvent(PostDto event) {
+        return kafkaTemplate.send(heatPostsTopic, key(event.getId()), event)
                 .thenRun(() -> {})
                 .exceptionally(ex -> {
-                    throw new RuntimeException("Failed to send feed heat event", ex);
+                    throw new RuntimeException("Failed to send post heat event", ex);
                 });
     }
+
+    /**
+     * Events are keyed by the entity whose state they change, so all events of one post (or one follower feed)
+     * land on the same partition and are consumed in order by a single listener thread.
+     */
+    private static String key(Long id) {
+        return String.valueOf(id);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package faang.school.postservice.kafka.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.dto.comment.CommentDto;
+import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.kafka.events.CommentEvent;
+import faang.school.postservice.kafka.events.FeedDto;
+import faang.school.postservice.kafka.events.FeedDto.FeedEntry;
+import faang.school.postservice.kafka.events.PostFollowersEvent;
+import faang.school.postservice.kafka.events.PostLikeEvent;
+import faang.school.postservice.kafka.events.PostViewEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary format of the Kafka events. A payload is a one byte type tag followed by the fields of the event
+ * in declaration order. Ids, counters and timestamps are varints and id lists are delta encoded; nested DTOs
+ * (comments, post bodies) are rare on the hot topics and are embedded as length-prefixed JSON.
+ * <p>
+ * Tags never collide with '{', so a reader can tell a binary payload from a JSON one by its first byte.
+ */
+public class BinaryEventCodec {
+    static final int POST_FOLLOWERS_EVENT = 1;
+    static final int POST_VIEW_EVENT = 2;
+    static final int POST_LIKE_EVENT = 3;
+    static final int COMMENT_EVENT = 4;
+    static final int FEED = 5;
+    static final int POST = 6;
+
+    private static final TypeReference<List<CommentDto>> COMMENT_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    public BinaryEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data.length > 0 && data[0] >= POST_FOLLOWERS_EVENT && data[0] <= POST;
+    }
+
+    public byte[] encode(Object event) {
+        if (event instanceof PostFollowersEvent postFollowersEvent) {
+            var output = new BinaryOutput(32 + 3 * sizeOf(postFollowersEvent.followersIds()));
+            output.writeByte(POST_FOLLOWERS_EVENT);
+            output.writeNullableLong(postFollowersEvent.authorId());
+            output.writeNullableLong(postFollowersEvent.postId());
+            output.writeLongList(postFollowersEvent.followersIds());
+            output.writeDateTime(postFollowersEvent.publishedAt());
+            output.writeVarLong(postFollowersEvent.chunkIndex());
+            output.writeVarLong(postFollowersEvent.chunkCount());
+            output.writeVarLong(postFollowersEvent.followersCount());
+            return output.toByteArray();
+        }
+        if (event instanceof PostViewEvent postViewEvent) {
+            var output = new BinaryOutput(16);
+            output.writeByte(POST_VIEW_EVENT);
+            output.writeNullableLong(postViewEvent.postId());
+            return output.toByteArray();
+        }
+        if (event instanceof PostLikeEvent postLikeEvent) {
+            var output = new BinaryOutput(32);
+            output.writeByte(POST_LIKE_EVENT);
+            output.writeNullableLong(postLikeEvent.id());
+            output.writeString(postLikeEvent.content());
+            output.writeNullableLong(postLikeEvent.authorId());
+            output.writeNullableInt(postLikeEvent.likes());
+            output.writeBytes(toJson(postLikeEvent.comments()));
+            return output.toByteArray();
+        }
+        if (event instanceof CommentEvent commentEvent) {
+            var output = new BinaryOutput(64);
+            output.writeByte(COMMENT_EVENT);
+            output.writeBytes(toJson(commentEvent.commentDto()));
+            output.writeNullableLong(commentEvent.authorId());
+            output.writeNullableLong(commentEvent.postId());
+            output.writeString(commentEvent.content());
+            return output.toByteArray();
+        }
+        if (event instanceof FeedDto feedDto) {
+            var output = new BinaryOutput(16 + 8 * sizeOf(feedDto.entries()));
+            output.writeByte(FEED);
+            output.writeNullableLong(feedDto.followerId());
+            writeFeedEntries(output, feedDto.entries());
+            return output.toByteArray();
+        }
+        if (event instanceof PostDto postDto) {
+            var output = new BinaryOutput(64);
+            output.writeByte(POST);
+            output.writeBytes(toJson(postDto));
+            return output.toByteArray();
+        }
+        throw new IllegalArgumentException("No binary format for event type " + event.getClass().getName());
+    }
+
+    public Object decode(byte[] data) {
+        var input = new BinaryInput(data, 1);
+        return switch (data[0]) {
+            case POST_FOLLOWERS_EVENT -> new PostFollowersEvent(input.readNullableLong(), input.readNullableLong(),
+                    input.readLongList(), input.readDateTime(), input.readInt(), input.readInt(), input.readInt());
+            case POST_VIEW_EVENT -> new PostViewEvent(input.readNullableLong());
+            case POST_LIKE_EVENT -> new PostLikeEvent(input.readNullableLong(), input.readString(),
+                    input.readNullableLong(), input.readNullableInt(), fromJson(input.readBytes(), COMMENT_LIST));
+            case COMMENT_EVENT -> new CommentEvent(fromJson(input.readBytes(), CommentDto.class),
+                    input.readNullableLong(), input.readNullableLong(), input.readString());
+            case FEED -> new FeedDto(input.readNullableLong(), readFeedEntries(input));
+            case POST -> fromJson(input.readBytes(), PostDto.class);
+            default -> throw new IllegalArgumentException("Unknown binary event type " + data[0]);
+        };
+    }
+
+    /**
+     * Post ids and scores are delta encoded against the previous entry; entries of a feed are close in both.
+     */
+    private static void writeFeedEntries(BinaryOutput output, List<FeedEntry> entries) {
+        if (entries == null) {
+            output.writeVarLong(0);
+            return;
+        }
+        output.writeVarLong(entries.size() + 1L);
+        long previousPostId = 0;
+        long previousScore = 0;
+        for (var entry : entries) {
+            output.writeSignedVarLong(entry.postId() - previousPostId);
+            output.writeSignedVarLong(entry.score() - previousScore);
+            previousPostId = entry.postId();
+            previousScore = entry.score();
+        }
+    }
+
+    private static List<FeedEntry> readFeedEntries(BinaryInput input) {
+        var sizePlusOne = input.readVarLong();
+        if (sizePlusOne == 0) {
+            return null;
+        }
+        var size = Math.toIntExact(sizePlusOne - 1);
+        var entries = new ArrayList<FeedEntry>();
+        long postId = 0;
+        long score = 0;
+        for (int i = 0; i < size; i++) {
+            postId += input.readSignedVarLong();
+            score += input.readSignedVarLong();
+            entries.add(new FeedEntry(postId, score));
+        }
+        return entries;
+    }
+
+    private static int sizeOf(List<?> values) {
+        return values == null ? 0 : values.size();
+    }
+
+    private byte[] toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to write nested value of binary event", e);
+        }
+    }
+
+    private <T> T fromJson(byte[] json, Class<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read nested value of binary event", e);
+        }
+    }
+
+    private <T> T fromJson(byte[] json, TypeReference<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read nested value of binary event", e);
+        }
+    }
+}
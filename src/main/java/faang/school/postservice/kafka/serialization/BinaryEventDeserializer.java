@@ -0,0 +1,50 @@
+package faang.school.postservice.kafka.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+/**
+ * Reads binary events and, during a switch from JSON, any JSON record still in the topic.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+    private final BinaryEventCodec codec;
+    private final Deserializer<Object> jsonDeserializer;
+
+    public BinaryEventDeserializer(BinaryEventCodec codec, Deserializer<Object> jsonDeserializer) {
+        this.codec = codec;
+        this.jsonDeserializer = jsonDeserializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (!BinaryEventCodec.isBinary(data)) {
+            return jsonDeserializer.deserialize(topic, headers, data);
+        }
+        try {
+            return codec.decode(data);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new SerializationException("Can't deserialize binary event from topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,24 @@
+package faang.school.postservice.kafka.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+public class BinaryEventSerializer implements Serializer<Object> {
+    private final BinaryEventCodec codec;
+
+    public BinaryEventSerializer(BinaryEventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return codec.encode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Can't serialize event for topic " + topic, e);
+        }
+    }
+}
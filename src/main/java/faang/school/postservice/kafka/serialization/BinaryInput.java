@@ -0,0 +1,105 @@
+package faang.school.postservice.kafka.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads values written by {@link BinaryOutput}.
+ */
+class BinaryInput {
+    private final byte[] buffer;
+    private int position;
+
+    BinaryInput(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    int readByte() {
+        if (position >= buffer.length) {
+            throw new IllegalArgumentException("Unexpected end of binary event");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int current = readByte();
+            value |= (long) (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in binary event");
+    }
+
+    int readInt() {
+        return Math.toIntExact(readVarLong());
+    }
+
+    long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    Long readNullableLong() {
+        return readBoolean() ? readSignedVarLong() : null;
+    }
+
+    Integer readNullableInt() {
+        var value = readNullableLong();
+        return value == null ? null : Math.toIntExact(value);
+    }
+
+    String readString() {
+        var bytes = readBytes();
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    byte[] readBytes() {
+        var length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        var end = position + Math.toIntExact(length - 1);
+        if (end > buffer.length) {
+            throw new IllegalArgumentException("Unexpected end of binary event");
+        }
+        var bytes = Arrays.copyOfRange(buffer, position, end);
+        position = end;
+        return bytes;
+    }
+
+    LocalDateTime readDateTime() {
+        if (!readBoolean()) {
+            return null;
+        }
+        var epochSecond = readSignedVarLong();
+        var nano = Math.toIntExact(readVarLong());
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    List<Long> readLongList() {
+        var sizePlusOne = readVarLong();
+        if (sizePlusOne == 0) {
+            return null;
+        }
+        var size = Math.toIntExact(sizePlusOne - 1);
+        var values = new ArrayList<Long>(Math.min(size, buffer.length - position));
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            previous += readSignedVarLong();
+            values.add(previous);
+        }
+        return values;
+    }
+}
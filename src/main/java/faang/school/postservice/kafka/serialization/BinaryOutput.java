@@ -0,0 +1,111 @@
+package faang.school.postservice.kafka.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Growable byte buffer with the primitives of the binary event format. Integers are written as unsigned LEB128
+ * varints, signed values are zigzag encoded first so small negative numbers stay short. Nullable values carry
+ * a presence marker.
+ */
+class BinaryOutput {
+    private byte[] buffer;
+    private int size;
+
+    BinaryOutput(int initialCapacity) {
+        buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    void writeNullableLong(Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeSignedVarLong(value);
+        }
+    }
+
+    void writeNullableInt(Integer value) {
+        writeNullableLong(value == null ? null : value.longValue());
+    }
+
+    void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Length-prefixed bytes; a length of 0 means null, so the stored length is the real length plus one.
+     */
+    void writeBytes(byte[] value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(value.length + 1L);
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, buffer, size, value.length);
+        size += value.length;
+    }
+
+    void writeDateTime(LocalDateTime value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeSignedVarLong(value.toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(value.getNano());
+        }
+    }
+
+    /**
+     * Writes each id as the zigzag varint of its difference to the previous one. Ids sorted ascending cost one
+     * or two bytes each instead of up to twenty characters of JSON.
+     */
+    void writeLongList(List<Long> values) {
+        if (values == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(values.size() + 1L);
+        long previous = 0;
+        for (long value : values) {
+            writeSignedVarLong(value - previous);
+            previous = value;
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
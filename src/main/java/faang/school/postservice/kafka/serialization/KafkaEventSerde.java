@@ -0,0 +1,39 @@
+package faang.school.postservice.kafka.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the value serializers of the Kafka producer and consumers for the configured format. The binary
+ * deserializer also reads JSON records, so consumers can be switched before producers.
+ */
+@Component
+public class KafkaEventSerde {
+    private final SerializationFormat format;
+    private final BinaryEventCodec binaryEventCodec;
+
+    public KafkaEventSerde(@Value("${spring.kafka.serialization.format:json}") String format,
+                           ObjectMapper objectMapper) {
+        this.format = SerializationFormat.valueOf(format.trim().toUpperCase());
+        this.binaryEventCodec = new BinaryEventCodec(objectMapper);
+    }
+
+    public Serializer<Object> serializer() {
+        return switch (format) {
+            case JSON -> new JsonSerializer<>();
+            case BINARY -> new BinaryEventSerializer(binaryEventCodec);
+        };
+    }
+
+    public Deserializer<Object> deserializer() {
+        return switch (format) {
+            case JSON -> new JsonDeserializer<>();
+            case BINARY -> new BinaryEventDeserializer(binaryEventCodec, new JsonDeserializer<>());
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package faang.school.postservice.kafka.serialization;
+
+public enum SerializationFormat {
+    JSON,
+    BINARY
+}
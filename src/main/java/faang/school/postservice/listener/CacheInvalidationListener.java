@@ -0,0 +1,20 @@
+package faang.school.postservice.listener;
+
+import faang.school.postservice.redis.cache.NearCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+    private final NearCache nearCache;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        nearCache.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
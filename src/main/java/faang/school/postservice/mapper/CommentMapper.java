@@ -2,11 +2,9 @@ package faang.school.postservice.mapper;
 
 import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.model.Comment;
-import faang.school.postservice.model.Like;
-import faang.school.postservice.model.Post;
+import faang.school.postservice.repository.projection.CommentPreview;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.Named;
 import org.mapstruct.ReportingPolicy;
 
 import java.util.List;
@@ -15,14 +13,18 @@ import java.util.List;
         uses = {LikeMapper.class},
         unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface CommentMapper {
-    @Mapping(target = "likes", source = "likes")
+    @Mapping(target = "likes", ignore = true)
+    @Mapping(target = "likeCount", ignore = true)
     @Mapping(target = "post.id", source = "postId")
     Comment toEntity(CommentDto commentDto);
 
-    @Mapping(target = "likes", source = "likes")
+    @Mapping(target = "likes", ignore = true)
     @Mapping(target = "postId", source = "post.id")
     CommentDto toDto(Comment comment);
 
+    @Mapping(target = "likes", ignore = true)
+    CommentDto toDto(CommentPreview commentPreview);
+
     List<Comment> toEntity(List<CommentDto> dtos);
 
     List<CommentDto> toDto(List<Comment> entities);
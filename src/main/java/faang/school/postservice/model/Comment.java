@@ -32,6 +32,9 @@ public class Comment {
     @OneToMany(mappedBy = "comment", orphanRemoval = true)
     private List<Like> likes;
 
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false)
+    private int likeCount;
+
     @ManyToOne
     @JoinColumn(name = "post_id", nullable = false)
     private Post post;
@@ -0,0 +1,26 @@
+package faang.school.postservice.publisher;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class CacheInvalidationPublisher implements MessagePublisher<String> {
+
+    @Value("${spring.data.redis.channels.cache_invalidation_channel.name:cache_invalidation_channel}")
+    private String channelTopic;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public void publish(String event) {
+        try {
+            stringRedisTemplate.convertAndSend(channelTopic, event);
+        } catch (Exception e) {
+            log.error("Failed to publish cache invalidation: {}", event, e);
+        }
+    }
+}
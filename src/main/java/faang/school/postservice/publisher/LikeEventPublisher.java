@@ -4,9 +4,13 @@ import faang.school.postservice.event.LikeEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @RequiredArgsConstructor
 @Slf4j
 @Component
@@ -25,4 +29,20 @@ public class LikeEventPublisher implements MessagePublisher<LikeEvent> {
             throw new RuntimeException("Error while publishing event to Redis", e);
         }
     }
+
+    /**
+     * Publishes the events in one pipelined round trip.
+     */
+    public void publishAll(List<LikeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                events.forEach(event -> operations.convertAndSend(channelTopic, event));
+                return null;
+            }
+        });
+    }
 }
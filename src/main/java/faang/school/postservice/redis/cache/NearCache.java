@@ -0,0 +1,115 @@
+package faang.school.postservice.redis.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import faang.school.postservice.publisher.CacheInvalidationPublisher;
+import faang.school.postservice.redis.model.AuthorCache;
+import faang.school.postservice.redis.model.PostCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Optional in-process L1 in front of the Redis post and author caches. Caffeine bounds it by size with W-TinyLFU
+ * eviction and expires entries after a short TTL. Every content or comment change to a cached post, and every change
+ * to a cached author, is broadcast over Redis pub/sub so all instances drop their copy; the TTL bounds staleness if a
+ * message is lost. Like and view counters are not broadcast, so near-cached counters lag by at most the TTL.
+ * Hit/miss counters are published as the near-cache-posts and near-cache-authors cache metrics.
+ */
+@Component
+@Slf4j
+public class NearCache {
+    private static final String POST_REGION = "post";
+    private static final String AUTHOR_REGION = "author";
+    private static final String SEPARATOR = ":";
+
+    private final boolean enabled;
+    private final Cache<Long, PostCache> posts;
+    private final Cache<Long, AuthorCache> authors;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    public NearCache(@Value("${spring.data.redis.near-cache.enabled:false}") boolean enabled,
+                     @Value("${spring.data.redis.near-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${spring.data.redis.near-cache.ttl-millis:5000}") long ttlMillis,
+                     CacheInvalidationPublisher cacheInvalidationPublisher,
+                     MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.posts = CaffeineCacheMetrics.monitor(meterRegistry, buildCache(maximumSize, ttlMillis),
+                "near-cache-posts");
+        this.authors = CaffeineCacheMetrics.monitor(meterRegistry, buildCache(maximumSize, ttlMillis),
+                "near-cache-authors");
+    }
+
+    public Map<Long, PostCache> getPosts(Collection<Long> postIds) {
+        if (!enabled) {
+            return Map.of();
+        }
+        return posts.getAllPresent(postIds);
+    }
+
+    public AuthorCache getAuthor(Long authorId) {
+        if (!enabled || authorId == null) {
+            return null;
+        }
+        return authors.getIfPresent(authorId);
+    }
+
+    public void putPost(PostCache postCache) {
+        if (enabled && postCache != null) {
+            posts.put(postCache.getId(), postCache);
+        }
+    }
+
+    public void putAuthor(AuthorCache authorCache) {
+        if (enabled && authorCache != null) {
+            authors.put(authorCache.getId(), authorCache);
+        }
+    }
+
+    /**
+     * Drops the post from this instance and tells every other instance to do the same.
+     */
+    public void evictPost(Long postId) {
+        if (enabled) {
+            posts.invalidate(postId);
+            cacheInvalidationPublisher.publish(POST_REGION + SEPARATOR + postId);
+        }
+    }
+
+    public void evictAuthor(Long authorId) {
+        if (enabled) {
+            authors.invalidate(authorId);
+            cacheInvalidationPublisher.publish(AUTHOR_REGION + SEPARATOR + authorId);
+        }
+    }
+
+    public void onInvalidation(String message) {
+        var parts = message.split(SEPARATOR);
+        if (parts.length != 2) {
+            log.warn("Unknown near cache invalidation message: {}", message);
+            return;
+        }
+
+        var id = Long.valueOf(parts[1]);
+        switch (parts[0]) {
+            case POST_REGION -> posts.invalidate(id);
+            case AUTHOR_REGION -> authors.invalidate(id);
+            default -> log.warn("Unknown near cache region in invalidation message: {}", message);
+        }
+    }
+
+    private static <V> Cache<Long, V> buildCache(long maximumSize, long ttlMillis) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+    }
+}
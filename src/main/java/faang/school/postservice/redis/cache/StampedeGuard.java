@@ -0,0 +1,222 @@
+package faang.school.postservice.redis.cache;
+
+import faang.school.postservice.redis.repository.HashCacheRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps cache misses on hot keys from turning into a load storm on Postgres or the user service.
+ * <ul>
+ *     <li>Within the JVM, concurrent misses on the same key share one load (single flight).</li>
+ *     <li>Across instances, the loading instance holds a short Redis lease per key; the others poll the cache
+ *     until the entry shows up and only load themselves when the lease runs out.</li>
+ *     <li>Hot entries are refreshed ahead of their expiry with probabilistic early expiration (XFetch): the closer
+ *     an entry is to its expiry and the longer it took to compute, the likelier a read triggers a background
+ *     refresh, so roughly one reader renews it before it disappears.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StampedeGuard {
+    @Value("${spring.data.redis.stampede.lease-key-prefix:lease:}")
+    private String leaseKeyPrefix;
+    @Value("${spring.data.redis.stampede.lease-millis:3000}")
+    private long leaseMillis;
+    @Value("${spring.data.redis.stampede.retry-millis:50}")
+    private long retryMillis;
+    @Value("${spring.data.redis.stampede.beta:1.0}")
+    private double beta;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisScript<Long> leaseReleaseScript;
+    private final Executor taskExecutor;
+
+    /**
+     * Loads missed entries with stampede protection. The loader reads the source and writes the cache, the cache
+     * reader only reads the cache; both get a batch of ids and return the values they found by id.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<Long, T> loadAll(String keyPrefix, Collection<Long> ids,
+                                    Function<List<Long>, Map<Long, T>> cacheReader,
+                                    Function<List<Long>, Map<Long, T>> loader) {
+        var ledFutures = new HashMap<Long, CompletableFuture<Object>>();
+        var followedFutures = new HashMap<Long, CompletableFuture<Object>>();
+        ids.forEach(id -> {
+            var future = new CompletableFuture<Object>();
+            var existing = inFlight.putIfAbsent(keyPrefix + id, future);
+            if (existing == null) {
+                ledFutures.put(id, future);
+            } else {
+                followedFutures.put(id, existing);
+            }
+        });
+
+        var result = new HashMap<Long, T>();
+        if (!ledFutures.isEmpty()) {
+            try {
+                result.putAll(loadLed(keyPrefix, List.copyOf(ledFutures.keySet()), cacheReader, loader));
+                ledFutures.forEach((id, future) -> future.complete(result.get(id)));
+            } catch (RuntimeException e) {
+                ledFutures.values().forEach(future -> future.completeExceptionally(e));
+                throw e;
+            } finally {
+                ledFutures.forEach((id, future) -> inFlight.remove(keyPrefix + id, future));
+            }
+        }
+
+        followedFutures.forEach((id, future) -> {
+            var value = (T) future.join();
+            if (value != null) {
+                result.put(id, value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * XFetch check on an entry written by {@link HashCacheRepository}; entries without expiry metadata are never
+     * refreshed early.
+     */
+    public boolean shouldRefreshEarly(Map<String, String> fields) {
+        var expiresAt = fields.get(HashCacheRepository.EXPIRES_AT_FIELD);
+        var delta = fields.get(HashCacheRepository.DELTA_FIELD);
+        if (expiresAt == null || delta == null) {
+            return false;
+        }
+        return shouldRefreshEarly(Long.parseLong(expiresAt), Long.parseLong(delta));
+    }
+
+    public boolean shouldRefreshEarly(long expiresAtMillis, long deltaMillis) {
+        var gap = -deltaMillis * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= expiresAtMillis;
+    }
+
+    /**
+     * Refreshes entries in the background. Ids whose lease is taken are skipped, since someone already reloads
+     * them; the caller never waits.
+     */
+    public void refreshAsync(String keyPrefix, Collection<Long> ids, Consumer<List<Long>> refresher) {
+        try {
+            taskExecutor.execute(() -> refresh(keyPrefix, List.copyOf(ids), refresher));
+        } catch (RejectedExecutionException e) {
+            log.debug("Early refresh of {} entries with prefix {} is skipped, executor is busy.", ids.size(), keyPrefix);
+        }
+    }
+
+    private void refresh(String keyPrefix, List<Long> ids, Consumer<List<Long>> refresher) {
+        var token = UUID.randomUUID().toString();
+        var leasedIds = acquireLeases(keyPrefix, ids, token);
+        if (leasedIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            refresher.accept(leasedIds);
+            log.debug("{} entries with prefix {} are refreshed ahead of expiry.", leasedIds.size(), keyPrefix);
+        } catch (RuntimeException e) {
+            log.warn("Early refresh of entries with prefix {} failed.", keyPrefix, e);
+        } finally {
+            releaseLeases(keyPrefix, leasedIds, token);
+        }
+    }
+
+    private <T> Map<Long, T> loadLed(String keyPrefix, List<Long> ids,
+                                     Function<List<Long>, Map<Long, T>> cacheReader,
+                                     Function<List<Long>, Map<Long, T>> loader) {
+        var token = UUID.randomUUID().toString();
+        var leasedIds = acquireLeases(keyPrefix, ids, token);
+        var contendedIds = ids.stream()
+                .filter(id -> !leasedIds.contains(id))
+                .toList();
+
+        var result = new HashMap<Long, T>();
+        if (!leasedIds.isEmpty()) {
+            try {
+                result.putAll(loader.apply(leasedIds));
+            } finally {
+                releaseLeases(keyPrefix, leasedIds, token);
+            }
+        }
+        if (!contendedIds.isEmpty()) {
+            result.putAll(awaitOtherLoader(keyPrefix, contendedIds, cacheReader, loader));
+        }
+        return result;
+    }
+
+    private <T> Map<Long, T> awaitOtherLoader(String keyPrefix, List<Long> ids,
+                                              Function<List<Long>, Map<Long, T>> cacheReader,
+                                              Function<List<Long>, Map<Long, T>> loader) {
+        var result = new HashMap<Long, T>();
+        var remainingIds = new ArrayList<>(ids);
+        var deadline = System.currentTimeMillis() + leaseMillis;
+
+        while (!remainingIds.isEmpty() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(retryMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            var found = cacheReader.apply(remainingIds);
+            result.putAll(found);
+            remainingIds.removeAll(found.keySet());
+        }
+
+        if (!remainingIds.isEmpty()) {
+            log.warn("{} entries with prefix {} were not loaded by the lease holder in time, loading them here.",
+                    remainingIds.size(), keyPrefix);
+            result.putAll(loader.apply(remainingIds));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> acquireLeases(String keyPrefix, List<Long> ids, String token) {
+        var acquired = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                var stringOperations = (RedisOperations<String, String>) operations;
+                ids.forEach(id -> stringOperations.opsForValue()
+                        .setIfAbsent(leaseKeyPrefix + keyPrefix + id, token, Duration.ofMillis(leaseMillis)));
+                return null;
+            }
+        });
+
+        var leasedIds = new ArrayList<Long>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (Boolean.TRUE.equals(acquired.get(i))) {
+                leasedIds.add(ids.get(i));
+            }
+        }
+        return leasedIds;
+    }
+
+    private void releaseLeases(String keyPrefix, List<Long> ids, String token) {
+        ids.forEach(id -> stringRedisTemplate.execute(leaseReleaseScript, List.of(leaseKeyPrefix + keyPrefix + id),
+                token));
+    }
+}
@@ -0,0 +1,40 @@
+package faang.school.postservice.redis.codec;
+
+import faang.school.postservice.redis.model.AuthorCache;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class AuthorCacheCodec implements HashCodec<AuthorCache> {
+    private static final String ID = "id";
+    private static final String USERNAME = "username";
+    private static final String EMAIL = "email";
+
+    @Override
+    public Long idOf(AuthorCache authorCache) {
+        return authorCache.getId();
+    }
+
+    @Override
+    public Map<String, String> encode(AuthorCache authorCache) {
+        var fields = new LinkedHashMap<String, String>();
+        if (authorCache.getId() != null) {
+            fields.put(ID, authorCache.getId().toString());
+        }
+        if (authorCache.getUsername() != null) {
+            fields.put(USERNAME, authorCache.getUsername());
+        }
+        if (authorCache.getEmail() != null) {
+            fields.put(EMAIL, authorCache.getEmail());
+        }
+        return fields;
+    }
+
+    @Override
+    public AuthorCache decode(Map<String, String> fields) {
+        var id = fields.get(ID);
+        return new AuthorCache(id == null ? null : Long.valueOf(id), fields.get(USERNAME), fields.get(EMAIL));
+    }
+}
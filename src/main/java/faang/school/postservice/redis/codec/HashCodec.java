@@ -0,0 +1,23 @@
+package faang.school.postservice.redis.codec;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a cache entity to a flat Redis hash of string fields and back. Fields holding null are left out of the
+ * hash, so the layout carries only the values themselves: no class metadata and no nested property paths.
+ */
+public interface HashCodec<T> {
+    Long idOf(T entity);
+
+    Map<String, String> encode(T entity);
+
+    T decode(Map<String, String> fields);
+
+    /**
+     * Fields incremented in place in Redis. A write keeps their cached value, since the source holds an older one.
+     */
+    default List<String> counterFields() {
+        return List.of();
+    }
+}
@@ -0,0 +1,75 @@
+package faang.school.postservice.redis.codec;
+
+import faang.school.postservice.redis.model.PostCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Post hash layout. Counter fields are named after the configured likes and views fields, so the scripts that
+ * increment them in place address the same fields. Comments are kept in their own ring and are not part of the hash.
+ */
+@Component
+public class PostCacheCodec implements HashCodec<PostCache> {
+    private static final String ID = "id";
+    private static final String CONTENT = "content";
+    private static final String AUTHOR_ID = "authorId";
+
+    private final String likesField;
+    private final String viewsField;
+
+    public PostCacheCodec(@Value("${spring.data.redis.post-cache.likes:likes}") String likesField,
+                          @Value("${spring.data.redis.post-cache.views:views}") String viewsField) {
+        this.likesField = likesField;
+        this.viewsField = viewsField;
+    }
+
+    @Override
+    public Long idOf(PostCache postCache) {
+        return postCache.getId();
+    }
+
+    @Override
+    public Map<String, String> encode(PostCache postCache) {
+        var fields = new LinkedHashMap<String, String>();
+        put(fields, ID, postCache.getId());
+        put(fields, CONTENT, postCache.getContent());
+        put(fields, AUTHOR_ID, postCache.getAuthorId());
+        put(fields, likesField, postCache.getLikes());
+        put(fields, viewsField, postCache.getViews());
+        return fields;
+    }
+
+    @Override
+    public PostCache decode(Map<String, String> fields) {
+        return PostCache.builder()
+                .id(toLong(fields.get(ID)))
+                .content(fields.get(CONTENT))
+                .authorId(toLong(fields.get(AUTHOR_ID)))
+                .likes(toInteger(fields.get(likesField)))
+                .views(toInteger(fields.get(viewsField)))
+                .build();
+    }
+
+    @Override
+    public List<String> counterFields() {
+        return List.of(likesField, viewsField);
+    }
+
+    private static void put(Map<String, String> fields, String field, Object value) {
+        if (value != null) {
+            fields.put(field, value.toString());
+        }
+    }
+
+    private static Long toLong(String value) {
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    private static Integer toInteger(String value) {
+        return value == null ? null : Integer.valueOf(value);
+    }
+}
@@ -1,5 +1,6 @@
 package faang.school.postservice.redis.mapper;
 
+import faang.school.postservice.dto.user.AuthorDto;
 import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.redis.model.AuthorCache;
 import org.mapstruct.Mapper;
@@ -8,4 +9,6 @@ import org.mapstruct.ReportingPolicy;
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface AuthorCacheMapper {
     AuthorCache toAuthorCache(UserDto userDto);
+
+    AuthorDto toAuthorDto(AuthorCache authorCache);
 }
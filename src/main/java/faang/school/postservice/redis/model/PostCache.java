@@ -1,23 +1,23 @@
 package faang.school.postservice.redis.model;
 
 import faang.school.postservice.dto.comment.CommentDto;
-import jakarta.persistence.Id;
 import lombok.Builder;
 import lombok.Data;
-import org.springframework.data.redis.core.RedisHash;
 
 import java.io.Serializable;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.List;
 
-@RedisHash(value = "posts", timeToLive = 86400)
 @Data
 @Builder
 public class PostCache implements Serializable {
-    @Id
     private Long id;
     private String content;
     private Long authorId;
     private Integer likes;
     private Integer views;
-    private final CopyOnWriteArrayList<CommentDto> comments;
+    /**
+     * Latest comments, newest first. They live in a separate capped ring next to the post hash and are only
+     * attached to the entity when it is read together with its ring.
+     */
+    private List<CommentDto> comments;
 }
\ No newline at end of file
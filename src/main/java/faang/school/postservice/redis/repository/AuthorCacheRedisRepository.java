@@ -1,8 +1,18 @@
 package faang.school.postservice.redis.repository;
 
+import faang.school.postservice.redis.codec.AuthorCacheCodec;
 import faang.school.postservice.redis.model.AuthorCache;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AuthorCacheRedisRepository extends CrudRepository<AuthorCache, Long> {}
\ No newline at end of file
+public class AuthorCacheRedisRepository extends HashCacheRepository<AuthorCache> {
+    public AuthorCacheRedisRepository(StringRedisTemplate stringRedisTemplate, RedisScript<Long> hashCacheWriteScript,
+                                      AuthorCacheCodec authorCacheCodec,
+                                      @Value("${spring.data.redis.author-cache.key-prefix:author:}") String keyPrefix,
+                                      @Value("${spring.data.redis.author-cache.ttl-seconds:86400}") long ttlSeconds) {
+        super(stringRedisTemplate, hashCacheWriteScript, authorCacheCodec, keyPrefix, ttlSeconds);
+    }
+}
@@ -0,0 +1,128 @@
+package faang.school.postservice.redis.repository;
+
+import faang.school.postservice.redis.codec.HashCodec;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Stores cache entities as plain Redis hashes under {@code keyPrefix + id}. A batch of entities is replaced and
+ * given its ttl by one script call, and read back with one pipelined HGETALL round trip. Unlike Spring Data's
+ * {@code @RedisHash} mapping there is no keyspace index set, no phantom expiry key and no type metadata to maintain.
+ * Every hash also carries its logical expiry time and how long the entry took to compute, which readers use to
+ * refresh hot entries before they expire.
+ */
+public abstract class HashCacheRepository<T> {
+    public static final String EXPIRES_AT_FIELD = "_expiresAt";
+    public static final String DELTA_FIELD = "_delta";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisScript<Long> hashCacheWriteScript;
+    private final HashCodec<T> codec;
+    private final String keyPrefix;
+    private final long ttlSeconds;
+
+    protected HashCacheRepository(StringRedisTemplate stringRedisTemplate, RedisScript<Long> hashCacheWriteScript,
+                                  HashCodec<T> codec, String keyPrefix, long ttlSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.hashCacheWriteScript = hashCacheWriteScript;
+        this.codec = codec;
+        this.keyPrefix = keyPrefix;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public T save(T entity) {
+        saveAll(List.of(entity));
+        return entity;
+    }
+
+    public void saveAll(Collection<T> entities) {
+        saveAll(entities, 0L);
+    }
+
+    /**
+     * Saves the entities, recording {@code deltaMillis} as the time it took to load them from their source. Counter
+     * fields already cached keep their value, so an early refresh does not reset what was incremented since.
+     */
+    public void saveAll(Collection<T> entities, long deltaMillis) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        var expiresAt = String.valueOf(System.currentTimeMillis() + Duration.ofSeconds(ttlSeconds).toMillis());
+        var keys = new ArrayList<String>(entities.size());
+        var args = new ArrayList<String>();
+        args.add(String.valueOf(ttlSeconds));
+        args.add(String.valueOf(codec.counterFields().size()));
+        args.addAll(codec.counterFields());
+        entities.forEach(entity -> {
+            var fields = new LinkedHashMap<>(codec.encode(entity));
+            fields.put(EXPIRES_AT_FIELD, expiresAt);
+            fields.put(DELTA_FIELD, String.valueOf(deltaMillis));
+            keys.add(keyOf(codec.idOf(entity)));
+            args.add(String.valueOf(fields.size()));
+            fields.forEach((field, value) -> {
+                args.add(field);
+                args.add(value);
+            });
+        });
+
+        stringRedisTemplate.execute(hashCacheWriteScript, keys, args.toArray());
+    }
+
+    public Optional<T> findById(Long id) {
+        return findAllById(List.of(id)).stream().findFirst();
+    }
+
+    /**
+     * Returns the cached entities among the given ids; ids that are not cached are skipped.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        var keys = ids.stream()
+                .map(this::keyOf)
+                .toList();
+        var hashes = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                var stringOperations = (RedisOperations<String, String>) operations;
+                keys.forEach(key -> stringOperations.opsForHash().entries(key));
+                return null;
+            }
+        });
+
+        return hashes.stream()
+                .filter(Objects::nonNull)
+                .map(hash -> (Map<String, String>) hash)
+                .filter(hash -> !hash.isEmpty())
+                .map(codec::decode)
+                .toList();
+    }
+
+    /**
+     * Returns when the cached entity logically expires, or empty if it is not cached or was written without expiry
+     * metadata.
+     */
+    public Optional<Long> findExpiresAt(Long id) {
+        return Optional.ofNullable(stringRedisTemplate.<String, String>opsForHash().get(keyOf(id), EXPIRES_AT_FIELD))
+                .map(Long::valueOf);
+    }
+
+    private String keyOf(Long id) {
+        return keyPrefix + id;
+    }
+}
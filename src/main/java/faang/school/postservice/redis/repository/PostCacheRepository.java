@@ -1,8 +1,18 @@
 package faang.school.postservice.redis.repository;
 
+import faang.school.postservice.redis.codec.PostCacheCodec;
 import faang.school.postservice.redis.model.PostCache;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PostCacheRepository extends CrudRepository<PostCache, Long>{}
\ No newline at end of file
+public class PostCacheRepository extends HashCacheRepository<PostCache> {
+    public PostCacheRepository(StringRedisTemplate stringRedisTemplate, RedisScript<Long> hashCacheWriteScript,
+                               PostCacheCodec postCacheCodec,
+                               @Value("${spring.data.redis.post-cache.key-prefix}") String keyPrefix,
+                               @Value("${spring.data.redis.post-cache.ttl-seconds:86400}") long ttlSeconds) {
+        super(stringRedisTemplate, hashCacheWriteScript, postCacheCodec, keyPrefix, ttlSeconds);
+    }
+}
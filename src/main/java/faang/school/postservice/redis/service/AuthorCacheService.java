@@ -2,24 +2,48 @@ package faang.school.postservice.redis.service;
 
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.dto.user.UserDto;
+import faang.school.postservice.redis.cache.NearCache;
+import faang.school.postservice.redis.cache.StampedeGuard;
 import faang.school.postservice.redis.mapper.AuthorCacheMapper;
+import faang.school.postservice.redis.model.AuthorCache;
 import faang.school.postservice.redis.repository.AuthorCacheRedisRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.CompletableFuture.runAsync;
 
+/**
+ * Read-through store of post and comment authors. Reads are served from the near cache, then Redis; the authors
+ * missing from both are loaded from the user service with one batched call and written back.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthorCacheService {
+    @Value("${spring.data.redis.author-cache.key-prefix:author:}")
+    private String authorCacheKeyPrefix;
+    @Value("${spring.data.redis.author-cache.ttl-seconds:86400}")
+    private long ttlSeconds;
+    @Value("${spring.data.redis.author-cache.refresh-after-seconds:3600}")
+    private long refreshAfterSeconds;
+
     private final AuthorCacheRedisRepository repository;
     private final AuthorCacheMapper authorCacheMapper;
     private final UserServiceClient userServiceClient;
-    
+    private final NearCache nearCache;
+    private final StampedeGuard stampedeGuard;
+
     public CompletableFuture<Void> saveAllAuthorsInCache(List<UserDto> allUsers){
         if (allUsers == null || allUsers.isEmpty()) {
             return completedFuture(null);
@@ -30,14 +54,97 @@ public class AuthorCacheService {
                 .toList();
 
         if (!authorCaches.isEmpty()) {
-            return runAsync(() -> repository.saveAll(authorCaches));
+            return runAsync(() -> {
+                repository.saveAll(authorCaches);
+                authorCaches.forEach(authorCache -> nearCache.evictAuthor(authorCache.getId()));
+            });
         }
         return completedFuture(null);
     }
 
-    public void saveAuthorCache(Long postAuthorId){
-        var author = userServiceClient.getUser(postAuthorId);
-        var authorCache = authorCacheMapper.toAuthorCache(author);
-        repository.save(authorCache);
+    /**
+     * Returns the cached authors by id, loading the ones not cached yet. Authors unknown to the user service are
+     * left out.
+     */
+    public Map<Long, AuthorCache> getAuthors(Collection<Long> authorIds) {
+        var authors = new HashMap<Long, AuthorCache>();
+        authorIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(authorId -> {
+                    var authorCache = nearCache.getAuthor(authorId);
+                    if (authorCache != null) {
+                        authors.put(authorId, authorCache);
+                    }
+                });
+
+        var remoteIds = authorIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(authorId -> !authors.containsKey(authorId))
+                .toList();
+        if (remoteIds.isEmpty()) {
+            return authors;
+        }
+
+        var cachedAuthors = findCachedAuthors(remoteIds);
+        cachedAuthors.values().forEach(nearCache::putAuthor);
+        authors.putAll(cachedAuthors);
+
+        var missedIds = remoteIds.stream()
+                .filter(authorId -> !cachedAuthors.containsKey(authorId))
+                .toList();
+        if (!missedIds.isEmpty()) {
+            authors.putAll(stampedeGuard.loadAll(authorCacheKeyPrefix, missedIds, this::findCachedAuthors,
+                    this::loadAuthors));
+        }
+        return authors;
+    }
+
+    /**
+     * Reloads the author in the background when the cached entry is missing or older than the refresh threshold.
+     * Publish and comment paths call this, so it never blocks on the user service.
+     */
+    public void refreshAuthorIfStale(Long authorId) {
+        if (authorId == null) {
+            return;
+        }
+        stampedeGuard.refreshAsync(authorCacheKeyPrefix, List.of(authorId), authorIds -> {
+            var staleIds = authorIds.stream()
+                    .filter(this::isStale)
+                    .toList();
+            if (!staleIds.isEmpty()) {
+                loadAuthors(staleIds);
+            }
+        });
+    }
+
+    private boolean isStale(Long authorId) {
+        var freshUntil = Duration.ofSeconds(ttlSeconds - refreshAfterSeconds).toMillis();
+        return repository.findExpiresAt(authorId)
+                .map(expiresAt -> expiresAt - System.currentTimeMillis() < freshUntil)
+                .orElse(true);
+    }
+
+    private Map<Long, AuthorCache> findCachedAuthors(List<Long> authorIds) {
+        var authors = new HashMap<Long, AuthorCache>();
+        repository.findAllById(authorIds).forEach(authorCache -> authors.put(authorCache.getId(), authorCache));
+        return authors;
+    }
+
+    private Map<Long, AuthorCache> loadAuthors(List<Long> authorIds) {
+        var startedAt = System.currentTimeMillis();
+        var authorCaches = userServiceClient.getUsersByIds(authorIds).stream()
+                .map(authorCacheMapper::toAuthorCache)
+                .toList();
+
+        repository.saveAll(authorCaches, System.currentTimeMillis() - startedAt);
+        var authors = new HashMap<Long, AuthorCache>();
+        authorCaches.forEach(authorCache -> {
+            nearCache.evictAuthor(authorCache.getId());
+            authors.put(authorCache.getId(), authorCache);
+        });
+        log.debug("{} authors were loaded from the user service into the cache.", authors.size());
+        return authors;
     }
-}
\ No newline at end of file
+}
@@ -1,102 +1,366 @@
 package faang.school.postservice.redis.service;
 
-import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.feed.FeedCursor;
+import faang.school.postservice.dto.feed.FeedPageDto;
 import faang.school.postservice.kafka.events.FeedDto;
-import faang.school.postservice.redis.mapper.PostCacheMapper;
+import faang.school.postservice.kafka.events.PostFollowersEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 import static java.util.Collections.emptyList;
-import static java.util.Optional.ofNullable;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FeedCacheService {
+    /**
+     * Member every cached followee set holds, so a user who follows nobody is cached too. User ids start at 1.
+     */
+    private static final Long NO_FOLLOWEE = 0L;
+
     @Value("${spring.data.redis.feed-cache.size:500}")
     private int maxFeedSize;
     @Value("${spring.data.redis.feed-cache.key-prefix}")
     private String feedPrefix;
     @Value("${spring.data.redis.feed-cache.batch_size:20}")
     private int postsPerPage;
+    @Value("${spring.data.redis.feed-cache.fan-out-chunk-size:1000}")
+    private int fanOutChunkSize;
+    @Value("${spring.data.redis.feed-cache.celebrity-threshold:10000}")
+    private int celebrityThreshold;
+    @Value("${spring.data.redis.feed-cache.timeline-key-prefix:timeline:}")
+    private String timelinePrefix;
+    @Value("${spring.data.redis.feed-cache.celebrities-key:celebrities}")
+    private String celebritiesKey;
+    @Value("${spring.data.redis.feed-cache.followees-key-prefix:followees:}")
+    private String followeesPrefix;
+    @Value("${spring.data.redis.feed-cache.followees-ttl-seconds:300}")
+    private long followeesTtlSeconds;
+    @Value("${spring.data.redis.feed-cache.fan-out-marker-prefix:fanout:}")
+    private String fanOutMarkerPrefix;
+    @Value("${spring.data.redis.feed-cache.fan-out-marker-ttl-seconds:86400}")
+    private long fanOutMarkerTtlSeconds;
 
     private final RedisTemplate<String, Object> redisTemplate;
-    private final PostCacheService postCacheService;
-    private final PostCacheMapper postCacheMapper;
+    private final FeedHydrationService feedHydrationService;
+    private final UserServiceClient userServiceClient;
 
-    @Async
-    public void distributePostToFollowers(Long postId, List<Long> followerIds, LocalDateTime publishedAt) {
-        followerIds.forEach(followerId -> addPostToSingleFollowerFeed(postId, followerId, publishedAt));
-    }
+    /**
+     * Pushes the post into the feeds of one chunk of followers, unless the author has more followers than the
+     * celebrity threshold. Such posts are written once into the author timeline and merged into follower feeds on
+     * read. Runs on the listener thread, so the record is acknowledged only once the chunk is written; partitions give
+     * the parallelism. A chunk is marked done after its fan-out, so a replayed chunk is skipped instead of re-adding
+     * posts that were already trimmed from the feeds, while a chunk interrupted by a crash is replayed in full.
+     */
+    public void distributePostToFollowers(PostFollowersEvent event) {
+        var markerKey = fanOutMarkerPrefix + event.postId() + ":" + event.chunkIndex();
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(markerKey))) {
+            log.debug("Chunk {} of post with id:{} is already distributed.", event.chunkIndex(), event.postId());
+            return;
+        }
 
-    public List<PostDto> getFeedByUserId(Long userId, Long postId){
-        var followerPostIds = getFollowerPostIds(userId, postId);
+        distributeChunk(event);
+        redisTemplate.opsForValue().set(markerKey, event.chunkCount(), fanOutMarkerTtl());
+    }
 
-        return postCacheService.getPostCacheByIds(followerPostIds).stream()
-                .map(postCacheMapper::toDto)
+    public FeedPageDto getFeedByUserId(Long userId, String cursor){
+        var position = cursor == null ? null : FeedCursor.decode(cursor);
+        var feedEntries = getFollowerFeedEntries(userId, position);
+        var followerPostIds = feedEntries.stream()
+                .map(FeedEntry::postId)
                 .toList();
+
+        var posts = feedHydrationService.hydrate(followerPostIds);
+
+        return new FeedPageDto(posts, generateNextCursor(feedEntries));
     }
 
+    /**
+     * Writes the heated entries with one multi-member ZADD and trims the feed, in one pipeline. Members are the
+     * Long post ids, the same encoding live fan-out uses.
+     */
     public void saveUserFeedHeat(FeedDto feedDto){
+        if (feedDto.entries() == null || feedDto.entries().isEmpty()) {
+            return;
+        }
+
         var feedCacheKey = generateFeedCacheKey(feedDto.followerId());
+        var tuples = new HashSet<TypedTuple<Object>>();
+        feedDto.entries().forEach(entry ->
+                tuples.add(new DefaultTypedTuple<>(entry.postId(), (double) entry.score())));
 
-        for (PostDto post: feedDto.posts()){
-            var score = post.getPublishedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
-            redisTemplate.opsForZSet().add(feedCacheKey, post, score);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                var zSetOperations = (ZSetOperations<String, Object>) operations.opsForZSet();
+                zSetOperations.add(feedCacheKey, tuples);
+                zSetOperations.removeRange(feedCacheKey, 0, -(maxFeedSize + 1L));
+                return null;
+            }
+        });
+    }
+
+    private void distributeChunk(PostFollowersEvent event) {
+        var score = event.publishedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        if (event.followersCount() > celebrityThreshold) {
+            addPostToAuthorTimeline(event.authorId(), event.postId(), score);
+            return;
+        }
+        if (event.chunkIndex() == 0) {
+            // an author who dropped below the threshold is pushed again, so readers stop merging the timeline
+            redisTemplate.opsForSet().remove(celebritiesKey, event.authorId());
+        }
+
+        var followerIds = event.followersIds();
+        for (int from = 0; from < followerIds.size(); from += fanOutChunkSize) {
+            var chunk = followerIds.subList(from, Math.min(from + fanOutChunkSize, followerIds.size()));
+            addPostToFollowersFeedsChunk(event.postId(), chunk, score);
         }
     }
 
+    private Duration fanOutMarkerTtl() {
+        return Duration.ofSeconds(fanOutMarkerTtlSeconds);
+    }
+
     private String generateFeedCacheKey(Long followerId) {
         return feedPrefix + followerId;
     }
 
-    private List<Long> getFeedInRange(String feedCacheKey, long startPostId, long endPostId) {
-        var result = redisTemplate.opsForZSet().range(feedCacheKey, startPostId, endPostId);
+    private String generateTimelineKey(Long authorId) {
+        return timelinePrefix + authorId;
+    }
 
-        if (result == null) {
-            return emptyList();
+    private String generateFolloweesKey(Long userId) {
+        return followeesPrefix + userId;
+    }
+
+    /**
+     * Sends ZADD and a trim for every follower of the chunk in a single pipeline, so the whole chunk costs
+     * one network round trip. Removing ranks 0..-(maxFeedSize + 1) keeps only the newest maxFeedSize posts
+     * without asking for the feed size first.
+     */
+    private void addPostToFollowersFeedsChunk(Long postId, List<Long> followerIds, long score) {
+        var startedAt = System.nanoTime();
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                var zSetOperations = (ZSetOperations<String, Object>) operations.opsForZSet();
+
+                followerIds.forEach(followerId -> {
+                    var feedCacheKey = generateFeedCacheKey(followerId);
+                    zSetOperations.add(feedCacheKey, postId, score);
+                    zSetOperations.removeRange(feedCacheKey, 0, -(maxFeedSize + 1L));
+                });
+                return null;
+            }
+        });
+
+        log.debug("Post with id:{} is added to {} follower feeds in {} ms.",
+                postId, followerIds.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private void addPostToAuthorTimeline(Long authorId, Long postId, long score) {
+        var timelineKey = generateTimelineKey(authorId);
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                var zSetOperations = (ZSetOperations<String, Object>) operations.opsForZSet();
+                var setOperations = (SetOperations<String, Object>) operations.opsForSet();
+
+                zSetOperations.add(timelineKey, postId, score);
+                zSetOperations.removeRange(timelineKey, 0, -(maxFeedSize + 1L));
+                setOperations.add(celebritiesKey, authorId);
+                return null;
+            }
+        });
+
+        log.debug("Post with id:{} is added to timeline of author with id:{}.", postId, authorId);
+    }
+
+    private List<FeedEntry> getFollowerFeedEntries(Long userId, FeedCursor cursor) {
+        var sourceKeys = getFeedSourceKeys(userId);
+        var pages = readFeedPages(sourceKeys, cursor);
+
+        return mergeNewestFirst(pages);
+    }
+
+    private String generateNextCursor(List<FeedEntry> feedEntries) {
+        if (feedEntries.size() < postsPerPage) {
+            return null;
         }
 
-        return result.stream()
-                .map(obj -> (Long) obj)
-                .toList();
+        var lastEntry = feedEntries.get(feedEntries.size() - 1);
+        return new FeedCursor(lastEntry.score(), lastEntry.postId()).encode();
     }
 
-    private void addPostToSingleFollowerFeed(Long postId, Long followerId, LocalDateTime publishedAt){
-        var feedCacheKey = generateFeedCacheKey(followerId);
-        var score = publishedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    /**
+     * The user's pushed feed plus the timelines of the celebrities the user follows.
+     */
+    private List<String> getFeedSourceKeys(Long userId) {
+        var sourceKeys = new ArrayList<String>();
+        sourceKeys.add(generateFeedCacheKey(userId));
+        getFollowedCelebrityIds(userId).forEach(celebrityId -> sourceKeys.add(generateTimelineKey(celebrityId)));
+        return sourceKeys;
+    }
 
-        redisTemplate.opsForZSet().add(feedCacheKey, postId, score);
-        trimFeedCacheIfLimitExceeded(feedCacheKey);
+    /**
+     * Intersects the user's followees with the celebrities in Redis, in one round trip with the check that the
+     * followees are cached. They are fetched from the user service only when their short-lived copy has expired.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Long> getFollowedCelebrityIds(Long userId) {
+        var followeesKey = generateFolloweesKey(userId);
+        var results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                var stringOperations = (RedisOperations<String, Object>) operations;
+                stringOperations.opsForSet().intersect(followeesKey, celebritiesKey);
+                stringOperations.hasKey(followeesKey);
+                return null;
+            }
+        });
+
+        if (Boolean.TRUE.equals(results.get(1))) {
+            return toUserIds((Set<Object>) results.get(0));
+        }
+        cacheFollowees(userId, followeesKey);
+        return toUserIds(redisTemplate.opsForSet().intersect(followeesKey, celebritiesKey));
+    }
+
+    private void cacheFollowees(Long userId, String followeesKey) {
+        var followees = userServiceClient.getUser(userId).getFollowees();
+        var members = new ArrayList<Object>();
+        members.add(NO_FOLLOWEE);
+        if (followees != null) {
+            members.addAll(followees);
+        }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                var stringOperations = (RedisOperations<String, Object>) operations;
+                stringOperations.opsForSet().add(followeesKey, members.toArray());
+                stringOperations.expire(followeesKey, Duration.ofSeconds(followeesTtlSeconds));
+                return null;
+            }
+        });
     }
 
-    private void trimFeedCacheIfLimitExceeded(String feedCacheKey) {
-        ofNullable(redisTemplate.opsForZSet().zCard(feedCacheKey))
-                .filter(size -> size > maxFeedSize)
-                .ifPresent(size -> redisTemplate.opsForZSet()
-                        .removeRange(feedCacheKey, 0, size - maxFeedSize));
+    private static List<Long> toUserIds(Set<Object> members) {
+        if (members == null) {
+            return emptyList();
+        }
+        return members.stream()
+                .map(member -> ((Number) member).longValue())
+                .toList();
     }
 
-    private List<Long> getFollowerPostIds(Long userId, Long postId) {
-        var feedCacheKey = generateFeedCacheKey(userId);
-        if (postId == null) {
-            return getFeedInRange(feedCacheKey, 0, postsPerPage - 1);
-        } else {
-            var rank = redisTemplate.opsForZSet().rank(feedCacheKey, postId);
+    /**
+     * Reads one page per feed source in a single pipeline, bounded by the cursor score rather than by rank, so posts
+     * added or trimmed between pages do not shift the window. The page is a ZREVRANGEBYSCORE ... LIMIT strictly below
+     * the cursor score; members at the cursor score itself are read whole with ZRANGEBYSCORE score score and only
+     * those after the cursor post id are kept, so any number of posts sharing a millisecond is paged without gaps or
+     * repeats.
+     */
+    @SuppressWarnings("unchecked")
+    private List<List<FeedEntry>> readFeedPages(List<String> sourceKeys, FeedCursor cursor) {
+        var maxScore = cursor == null ? Double.POSITIVE_INFINITY : Math.nextDown(cursor.score());
 
-            if (rank == null) {
-                return getFeedInRange(feedCacheKey, 0, postsPerPage - 1);
+        var results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                var zSetOperations = (ZSetOperations<String, Object>) operations.opsForZSet();
+                sourceKeys.forEach(sourceKey -> {
+                    if (cursor != null) {
+                        zSetOperations.rangeByScoreWithScores(sourceKey, cursor.score(), cursor.score());
+                    }
+                    zSetOperations.reverseRangeByScoreWithScores(
+                            sourceKey, Double.NEGATIVE_INFINITY, maxScore, 0, postsPerPage);
+                });
+                return null;
             }
+        });
 
-            return getFeedInRange(feedCacheKey, rank + 1, rank + postsPerPage);
+        var readsPerSource = cursor == null ? 1 : 2;
+        var pages = new ArrayList<List<FeedEntry>>();
+        for (int from = 0; from < results.size(); from += readsPerSource) {
+            var tuples = new ArrayList<TypedTuple<Object>>();
+            results.subList(from, from + readsPerSource).stream()
+                    .filter(Objects::nonNull)
+                    .forEach(result -> tuples.addAll((Set<TypedTuple<Object>>) result));
+            pages.add(toFeedEntries(tuples, cursor));
         }
+        return pages;
+    }
+
+    private List<FeedEntry> toFeedEntries(List<TypedTuple<Object>> tuples, FeedCursor cursor) {
+        var cursorEntry = cursor == null ? null : new FeedEntry(cursor.postId(), cursor.score());
+        return tuples.stream()
+                .map(tuple -> new FeedEntry(((Number) tuple.getValue()).longValue(), tuple.getScore()))
+                .filter(entry -> cursorEntry == null || FeedEntry.NEWEST_FIRST.compare(entry, cursorEntry) > 0)
+                .sorted(FeedEntry.NEWEST_FIRST)
+                .toList();
     }
-}
\ No newline at end of file
+
+    /**
+     * K-way merge of the per-source pages, each already sorted newest first.
+     */
+    private List<FeedEntry> mergeNewestFirst(List<List<FeedEntry>> pages) {
+        var heads = new PriorityQueue<PageHead>((left, right) ->
+                FeedEntry.NEWEST_FIRST.compare(left.entry(), right.entry()));
+        pages.stream()
+                .map(List::iterator)
+                .filter(Iterator::hasNext)
+                .forEach(iterator -> heads.add(new PageHead(iterator.next(), iterator)));
+
+        var feedEntries = new ArrayList<FeedEntry>();
+        var seenPostIds = new HashSet<Long>();
+        while (!heads.isEmpty() && feedEntries.size() < postsPerPage) {
+            var head = heads.poll();
+            if (seenPostIds.add(head.entry().postId())) {
+                feedEntries.add(head.entry());
+            }
+            if (head.rest().hasNext()) {
+                heads.add(new PageHead(head.rest().next(), head.rest()));
+            }
+        }
+        return feedEntries;
+    }
+
+    private record FeedEntry(long postId, double score) {
+        private static final Comparator<FeedEntry> NEWEST_FIRST = Comparator
+                .comparingDouble(FeedEntry::score)
+                .thenComparingLong(FeedEntry::postId)
+                .reversed();
+    }
+
+    private record PageHead(FeedEntry entry, Iterator<FeedEntry> rest) {}
+}
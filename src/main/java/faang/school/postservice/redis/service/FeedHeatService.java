@@ -1,69 +1,201 @@
 package faang.school.postservice.redis.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.dto.post.PostDto;
 import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.kafka.events.FeedDto;
+import faang.school.postservice.kafka.events.FeedDto.FeedEntry;
 import faang.school.postservice.kafka.producer.KafkaEventProducer;
-import faang.school.postservice.service.post.PostService;
+import faang.school.postservice.service.post.PostRetrievalService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+/**
+ * Warms follower feeds for the whole user base. Users are read page by page, each page is split into batches
+ * processed on the heat executor, and events are sent as soon as a batch is ready, so memory stays bounded by
+ * one page. Feed events carry only post ids and scores; post bodies go to heat-posts, once per run as long as their
+ * id stays in the set of sent ids.
+ * The id of the last fully processed user is checkpointed in Redis once every send of its page is acknowledged by
+ * the broker; a run started after a crash or redeploy continues after it, and a failed send fails the run before
+ * the checkpoint moves. Progress is reported to the caller after every page.
+ * <p>
+ * Bloggers and their latest posts are loaded once per page for all followers of the page, with chunked IN-queries.
+ * Only the feed entries of each blogger are memoized for the rest of the run, in a cache bounded by
+ * {@code bloggers-cache-size}, so the number of lookups follows distinct bloggers, not followers. Post bodies are
+ * sent right after loading and not kept; only their ids are, in a set of the same bound. A post whose id was evicted
+ * is sent again, which only rewrites the same cached post.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class FeedHeatService {
     @Value("${spring.data.redis.heat.max-posts-in-feed:500}")
     private int maxPostsInHeatFeed;
+    @Value("${spring.data.redis.heat.users-page-size:1000}")
+    private int usersPageSize;
+    @Value("${spring.data.redis.heat.batch-size:100}")
+    private int batchSize;
+    @Value("${spring.data.redis.heat.checkpoint-key:heat:checkpoint}")
+    private String checkpointKey;
+    @Value("${spring.data.redis.heat.query-chunk-size:1000}")
+    private int queryChunkSize;
+    @Value("${spring.data.redis.heat.bloggers-cache-size:100000}")
+    private long bloggersCacheSize;
 
     private final KafkaEventProducer kafkaEventProducer;
     private final AuthorCacheService authorCacheService;
     private final UserServiceClient userServiceClient;
-    private final PostService postService;
+    private final PostRetrievalService postRetrievalService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Executor heatExecutor;
 
-    public void sendHeatEvents(){
-        var allUsers = userServiceClient.getAllUsers();
-        authorCacheService.saveAllAuthorsInCache(allUsers);
+    @FunctionalInterface
+    public interface HeatProgress {
+        void onPage(int usersProcessed, long eventsSent);
+    }
 
-        var feedEvents = generateFeedsForAllUserFollowers(allUsers);
-        sendFeedHeatEvents(feedEvents);
+    public void sendHeatEvents(HeatProgress progress) {
+        var afterId = readCheckpoint();
+        if (afterId > 0) {
+            log.info("Resuming feed heat after user with id:{}.", afterId);
+        }
 
-        var postEvents = generatePostEvents(feedEvents);
-        sendPostHeatEvents(postEvents);
-    }
+        Cache<Long, List<FeedEntry>> entriesByBlogger = Caffeine.newBuilder()
+                .maximumSize(bloggersCacheSize)
+                .build();
+        Cache<Long, Boolean> sentPostIds = Caffeine.newBuilder()
+                .maximumSize(bloggersCacheSize)
+                .build();
+        var users = userServiceClient.getUsersPage(afterId, usersPageSize);
+        while (!users.isEmpty()) {
+            authorCacheService.saveAllAuthorsInCache(users).join();
+            var pageEntries = new HashMap<Long, List<FeedEntry>>();
+            var sends = new ArrayList<>(loadLatestEntries(users, entriesByBlogger, pageEntries, sentPostIds));
+            sends.addAll(heatPage(users, pageEntries));
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
 
-    private void sendPostHeatEvents(List<PostDto> postEvents) {
-        postEvents.forEach(kafkaEventProducer::sendPostHeatEvent);
-    }
+            afterId = users.get(users.size() - 1).getId();
+            redisTemplate.opsForValue().set(checkpointKey, afterId);
+            log.debug("Feed heat checkpoint moved to user with id:{}.", afterId);
+            progress.onPage(users.size(), sends.size());
 
-    private void sendFeedHeatEvents(List<FeedDto> feedEvents) {
-       feedEvents.forEach(kafkaEventProducer::sendFeedHeatEvent);
+            users = userServiceClient.getUsersPage(afterId, usersPageSize);
+        }
+
+        redisTemplate.delete(checkpointKey);
+        log.info("Feed heat is finished.");
     }
 
-    private List<FeedDto> generateFeedsForAllUserFollowers(List<UserDto> allExistingUsers) {
-        return allExistingUsers.parallelStream()
-                .map(follower -> {
-                    var followerId = follower.getId();
-                    var bloggers = userServiceClient.getUsersByIds(follower.getFollowees());
+    private List<CompletableFuture<Void>> heatPage(List<UserDto> users, Map<Long, List<FeedEntry>> pageEntries) {
+        var batches = new ArrayList<CompletableFuture<List<CompletableFuture<Void>>>>();
+        for (int from = 0; from < users.size(); from += batchSize) {
+            var batch = users.subList(from, Math.min(from + batchSize, users.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> heatBatch(batch, pageEntries), heatExecutor));
+        }
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+        return batches.stream()
+                .flatMap(batch -> batch.join().stream())
+                .toList();
+    }
 
-                    var allBloggersPostIds = bloggers.stream()
-                            .flatMap(blogger -> blogger.getPosts().stream())
-                            .limit(maxPostsInHeatFeed)
-                            .toList();
+    private List<CompletableFuture<Void>> heatBatch(List<UserDto> followers,
+                                                    Map<Long, List<FeedEntry>> pageEntries) {
+        return followers.stream()
+                .map(follower -> kafkaEventProducer.sendFeedHeatEvent(
+                        new FeedDto(follower.getId(), getLatestBloggersEntries(follower, pageEntries))))
+                .toList();
+    }
 
-                    var allBloggersPosts = postService.getPostsByIds(allBloggersPostIds);
+    private List<FeedEntry> getLatestBloggersEntries(UserDto follower, Map<Long, List<FeedEntry>> pageEntries) {
+        if (follower.getFollowees() == null || follower.getFollowees().isEmpty()) {
+            return List.of();
+        }
 
-                    return new FeedDto(followerId, allBloggersPosts);
-                })
+        return follower.getFollowees().stream()
+                .flatMap(bloggerId -> pageEntries.getOrDefault(bloggerId, List.of()).stream())
+                .sorted(FeedEntry.NEWEST_FIRST)
+                .limit(maxPostsInHeatFeed)
                 .toList();
     }
 
-    private List<PostDto> generatePostEvents(List<FeedDto> feedDtos){
-        return feedDtos.stream()
-                .flatMap(feedDto -> feedDto.posts().stream())
+    private List<CompletableFuture<Void>> loadLatestEntries(List<UserDto> followers,
+                                                            Cache<Long, List<FeedEntry>> entriesByBlogger,
+                                                            Map<Long, List<FeedEntry>> pageEntries,
+                                                            Cache<Long, Boolean> sentPostIds) {
+        var missedBloggerIds = new ArrayList<Long>();
+        followers.stream()
+                .filter(follower -> follower.getFollowees() != null)
+                .flatMap(follower -> follower.getFollowees().stream())
+                .distinct()
+                .forEach(bloggerId -> {
+                    var entries = entriesByBlogger.getIfPresent(bloggerId);
+                    if (entries == null) {
+                        missedBloggerIds.add(bloggerId);
+                    } else {
+                        pageEntries.put(bloggerId, entries);
+                    }
+                });
+        if (missedBloggerIds.isEmpty()) {
+            return List.of();
+        }
+
+        var postIdsByBlogger = new HashMap<Long, List<Long>>();
+        chunked(missedBloggerIds).forEach(chunk -> userServiceClient.getUsersByIds(chunk).forEach(blogger ->
+                postIdsByBlogger.put(blogger.getId(), blogger.getPosts() == null ? List.of() : blogger.getPosts().stream()
+                        .limit(maxPostsInHeatFeed)
+                        .toList())));
+
+        var postIds = postIdsByBlogger.values().stream()
+                .flatMap(List::stream)
                 .distinct()
                 .toList();
+        var postsById = new HashMap<Long, PostDto>();
+        chunked(postIds).forEach(chunk -> postRetrievalService.getPostsByIds(chunk).stream()
+                .filter(post -> post.getPublishedAt() != null)
+                .forEach(post -> postsById.put(post.getId(), post)));
+
+        missedBloggerIds.forEach(bloggerId -> {
+            var entries = postIdsByBlogger.getOrDefault(bloggerId, List.of()).stream()
+                    .map(postsById::get)
+                    .filter(Objects::nonNull)
+                    .map(post -> new FeedEntry(post.getId(),
+                            post.getPublishedAt().toInstant(ZoneOffset.UTC).toEpochMilli()))
+                    .toList();
+            entriesByBlogger.put(bloggerId, entries);
+            pageEntries.put(bloggerId, entries);
+        });
+
+        log.debug("Loaded latest posts of {} bloggers with {} posts.", missedBloggerIds.size(), postsById.size());
+        return postsById.values().stream()
+                .filter(post -> sentPostIds.asMap().putIfAbsent(post.getId(), Boolean.TRUE) == null)
+                .map(kafkaEventProducer::sendPostHeatEvent)
+                .toList();
+    }
+
+    private <T> List<List<T>> chunked(List<T> ids) {
+        var chunks = new ArrayList<List<T>>();
+        for (int from = 0; from < ids.size(); from += queryChunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + queryChunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    private long readCheckpoint() {
+        var checkpoint = redisTemplate.opsForValue().get(checkpointKey);
+        return checkpoint == null ? 0L : ((Number) checkpoint).longValue();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,200 @@
+package faang.school.postservice.redis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.dto.comment.CommentDto;
+import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.redis.cache.NearCache;
+import faang.school.postservice.redis.cache.StampedeGuard;
+import faang.school.postservice.redis.codec.AuthorCacheCodec;
+import faang.school.postservice.redis.codec.PostCacheCodec;
+import faang.school.postservice.redis.mapper.AuthorCacheMapper;
+import faang.school.postservice.redis.mapper.PostCacheMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Turns a page of feed post ids into posts with their authors and latest comments. Post hashes, the related author
+ * hashes and the comment rings are read by one server-side script, so a page costs a single round trip whatever its
+ * size. Posts missing from the cache are loaded with one batched query and written back, through the stampede guard
+ * so a hot post that just expired is loaded once rather than by every reader; hot posts close to their expiry are
+ * refreshed in the background. Authors missing from the cache are filled in by the author read-through store. Posts
+ * whose post and author are both in the near cache skip Redis entirely.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedHydrationService {
+    @Value("${spring.data.redis.post-cache.key-prefix}")
+    private String postCacheKeyPrefix;
+    @Value("${spring.data.redis.author-cache.key-prefix:author:}")
+    private String authorCacheKeyPrefix;
+    @Value("${spring.data.redis.post-cache.comments-key-prefix:post-comments:}")
+    private String commentRingKeyPrefix;
+    @Value("${spring.data.redis.post-cache.comments-per-post:3}")
+    private int commentLimitPerPost;
+
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> feedHydrationScript;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final PostCacheCodec postCacheCodec;
+    private final AuthorCacheCodec authorCacheCodec;
+    private final PostCacheService postCacheService;
+    private final AuthorCacheService authorCacheService;
+    private final PostCacheMapper postCacheMapper;
+    private final AuthorCacheMapper authorCacheMapper;
+    private final NearCache nearCache;
+    private final StampedeGuard stampedeGuard;
+    private final ObjectMapper objectMapper;
+
+    public List<PostDto> hydrate(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return emptyList();
+        }
+
+        var hydratedPosts = readFromNearCache(postIds);
+        var remoteIds = postIds.stream()
+                .filter(postId -> !hydratedPosts.containsKey(postId))
+                .toList();
+        var missedPostIds = new ArrayList<Long>();
+        var stalePostIds = new ArrayList<Long>();
+        hydratedPosts.putAll(readFromRedis(remoteIds, missedPostIds, stalePostIds));
+
+        if (!stalePostIds.isEmpty()) {
+            stampedeGuard.refreshAsync(postCacheKeyPrefix, stalePostIds, postCacheService::loadPosts);
+        }
+        if (!missedPostIds.isEmpty()) {
+            hydratedPosts.putAll(stampedeGuard.loadAll(postCacheKeyPrefix, missedPostIds,
+                    ids -> readFromRedis(ids, new ArrayList<>(), new ArrayList<>()), this::loadMissedPosts));
+        }
+        fillMissingAuthors(hydratedPosts.values());
+
+        return postIds.stream()
+                .map(hydratedPosts::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void fillMissingAuthors(Collection<PostDto> posts) {
+        var authorIds = posts.stream()
+                .filter(postDto -> postDto.getAuthor() == null)
+                .map(PostDto::getAuthorId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (authorIds.isEmpty()) {
+            return;
+        }
+
+        var authors = authorCacheService.getAuthors(authorIds);
+        posts.stream()
+                .filter(postDto -> postDto.getAuthor() == null && authors.containsKey(postDto.getAuthorId()))
+                .forEach(postDto -> postDto.setAuthor(authorCacheMapper.toAuthorDto(authors.get(postDto.getAuthorId()))));
+    }
+
+    private Map<Long, PostDto> readFromNearCache(List<Long> postIds) {
+        var hydratedPosts = new HashMap<Long, PostDto>();
+        nearCache.getPosts(postIds).forEach((postId, postCache) -> {
+            var authorCache = nearCache.getAuthor(postCache.getAuthorId());
+            // entries cached without their comment ring are not complete enough for a feed page
+            if (authorCache != null && postCache.getComments() != null) {
+                var postDto = postCacheMapper.toDto(postCache);
+                postDto.setAuthor(authorCacheMapper.toAuthorDto(authorCache));
+                hydratedPosts.put(postId, postDto);
+            }
+        });
+        return hydratedPosts;
+    }
+
+    /**
+     * Reads posts with their authors and comments from Redis. Ids not cached are added to {@code missedPostIds},
+     * cached posts due for an early refresh are returned and also added to {@code stalePostIds}.
+     */
+    private Map<Long, PostDto> readFromRedis(List<Long> postIds, List<Long> missedPostIds, List<Long> stalePostIds) {
+        var hydratedPosts = new HashMap<Long, PostDto>();
+        if (postIds.isEmpty()) {
+            return hydratedPosts;
+        }
+
+        var postsWithAuthors = readPostsWithAuthors(postIds);
+        for (int i = 0; i < postIds.size(); i++) {
+            var postFields = postsWithAuthors.get(i).get(0);
+            var authorFields = postsWithAuthors.get(i).get(1);
+            var commentValues = postsWithAuthors.get(i).get(2);
+
+            if (postFields.isEmpty()) {
+                missedPostIds.add(postIds.get(i));
+                continue;
+            }
+
+            var postHash = toFieldMap(postFields);
+            if (stampedeGuard.shouldRefreshEarly(postHash)) {
+                stalePostIds.add(postIds.get(i));
+            }
+            var postCache = postCacheCodec.decode(postHash);
+            postCache.setComments(readComments(commentValues));
+            nearCache.putPost(postCache);
+            var postDto = postCacheMapper.toDto(postCache);
+            if (!authorFields.isEmpty()) {
+                var authorCache = authorCacheCodec.decode(toFieldMap(authorFields));
+                nearCache.putAuthor(authorCache);
+                postDto.setAuthor(authorCacheMapper.toAuthorDto(authorCache));
+            }
+            hydratedPosts.put(postIds.get(i), postDto);
+        }
+        return hydratedPosts;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<List<List<byte[]>>> readPostsWithAuthors(List<Long> postIds) {
+        var postKeys = postIds.stream()
+                .map(postId -> postCacheKeyPrefix + postId)
+                .toList();
+
+        return (List<List<List<byte[]>>>) redisTemplate.execute(feedHydrationScript, RedisSerializer.string(),
+                (RedisSerializer) RedisSerializer.byteArray(), postKeys, authorCacheKeyPrefix, commentRingKeyPrefix,
+                String.valueOf(commentLimitPerPost));
+    }
+
+    private static Map<String, String> toFieldMap(List<byte[]> fields) {
+        var hash = new HashMap<String, String>();
+        for (int i = 0; i + 1 < fields.size(); i += 2) {
+            hash.put(new String(fields.get(i), StandardCharsets.UTF_8),
+                    new String(fields.get(i + 1), StandardCharsets.UTF_8));
+        }
+        return hash;
+    }
+
+    private List<CommentDto> readComments(List<byte[]> commentValues) {
+        var comments = new ArrayList<CommentDto>(commentValues.size());
+        for (byte[] commentValue : commentValues) {
+            try {
+                comments.add(objectMapper.readValue(commentValue, CommentDto.class));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to read cached comment", e);
+            }
+        }
+        return comments;
+    }
+
+    private Map<Long, PostDto> loadMissedPosts(List<Long> missedPostIds) {
+        var loadedPosts = postCacheService.loadPosts(missedPostIds);
+        log.debug("{} feed posts missed the cache and were loaded from the database.", loadedPosts.size());
+        return loadedPosts;
+    }
+}
@@ -0,0 +1,148 @@
+package faang.school.postservice.redis.service;
+
+import faang.school.postservice.dto.feed.HeatJobDto;
+import faang.school.postservice.dto.feed.HeatJobStatus;
+import faang.school.postservice.exception.HeatJobConflictException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs feed heat as a background job. A Redis lease (SET NX with a ttl) guarantees that only one job runs across
+ * all instances; the running job extends it after every page, so a crashed instance frees it within one ttl.
+ * Job progress is kept in a Redis hash, so any instance can report it. Jobs run on their own single-thread executor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HeatJobService {
+    private static final String STATUS = "status";
+    private static final String USERS_PROCESSED = "usersProcessed";
+    private static final String EVENTS_SENT = "eventsSent";
+    private static final String STARTED_AT = "startedAt";
+    private static final String FINISHED_AT = "finishedAt";
+
+    @Value("${spring.data.redis.heat.job.lease-key:heat:lease}")
+    private String leaseKey;
+    @Value("${spring.data.redis.heat.job.lease-ttl-seconds:300}")
+    private long leaseTtlSeconds;
+    @Value("${spring.data.redis.heat.job.key-prefix:heat:job:}")
+    private String jobKeyPrefix;
+    @Value("${spring.data.redis.heat.job.ttl-seconds:86400}")
+    private long jobTtlSeconds;
+
+    private final FeedHeatService feedHeatService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisScript<Long> leaseRenewScript;
+    private final RedisScript<Long> leaseReleaseScript;
+    private final Executor heatJobExecutor;
+
+    public HeatJobDto startJob() {
+        var jobId = UUID.randomUUID().toString();
+        var acquired = stringRedisTemplate.opsForValue()
+                .setIfAbsent(leaseKey, jobId, Duration.ofSeconds(leaseTtlSeconds));
+        if (!Boolean.TRUE.equals(acquired)) {
+            throw new HeatJobConflictException("A feed heat job is already running");
+        }
+
+        var jobKey = jobKeyPrefix + jobId;
+        stringRedisTemplate.opsForHash().putAll(jobKey, Map.of(
+                STATUS, HeatJobStatus.RUNNING.name(),
+                USERS_PROCESSED, "0",
+                EVENTS_SENT, "0",
+                STARTED_AT, String.valueOf(Instant.now().toEpochMilli())));
+        stringRedisTemplate.expire(jobKey, Duration.ofSeconds(jobTtlSeconds));
+
+        try {
+            heatJobExecutor.execute(() -> runJob(jobId));
+        } catch (RejectedExecutionException e) {
+            finishJob(jobId, HeatJobStatus.FAILED);
+            throw e;
+        }
+        log.info("Feed heat job {} is started.", jobId);
+
+        return getJob(jobId).orElseThrow();
+    }
+
+    public Optional<HeatJobDto> getJob(String jobId) {
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(jobKeyPrefix + jobId);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(toDto(jobId, fields));
+    }
+
+    public Optional<HeatJobDto> getCurrentJob() {
+        return Optional.ofNullable(stringRedisTemplate.opsForValue().get(leaseKey))
+                .flatMap(this::getJob);
+    }
+
+    private void runJob(String jobId) {
+        try {
+            feedHeatService.sendHeatEvents((usersProcessed, eventsSent) -> recordPage(jobId, usersProcessed, eventsSent));
+            finishJob(jobId, HeatJobStatus.COMPLETED);
+            log.info("Feed heat job {} is completed.", jobId);
+        } catch (Exception e) {
+            finishJob(jobId, HeatJobStatus.FAILED);
+            log.error("Feed heat job {} failed.", jobId, e);
+        }
+    }
+
+    private void recordPage(String jobId, int usersProcessed, long eventsSent) {
+        var jobKey = jobKeyPrefix + jobId;
+        stringRedisTemplate.opsForHash().increment(jobKey, USERS_PROCESSED, usersProcessed);
+        stringRedisTemplate.opsForHash().increment(jobKey, EVENTS_SENT, eventsSent);
+
+        var renewed = stringRedisTemplate.execute(leaseRenewScript, List.of(leaseKey), jobId,
+                String.valueOf(Duration.ofSeconds(leaseTtlSeconds).toMillis()));
+        if (renewed == null || renewed == 0) {
+            throw new IllegalStateException("Feed heat job %s lost its lease".formatted(jobId));
+        }
+    }
+
+    private void finishJob(String jobId, HeatJobStatus status) {
+        stringRedisTemplate.opsForHash().putAll(jobKeyPrefix + jobId, Map.of(
+                STATUS, status.name(),
+                FINISHED_AT, String.valueOf(Instant.now().toEpochMilli())));
+        stringRedisTemplate.execute(leaseReleaseScript, List.of(leaseKey), jobId);
+    }
+
+    private HeatJobDto toDto(String jobId, Map<Object, Object> fields) {
+        var usersProcessed = Long.parseLong((String) fields.getOrDefault(USERS_PROCESSED, "0"));
+        var eventsSent = Long.parseLong((String) fields.getOrDefault(EVENTS_SENT, "0"));
+        var startedAt = Long.parseLong((String) fields.get(STARTED_AT));
+        var finishedAt = fields.containsKey(FINISHED_AT) ? Long.parseLong((String) fields.get(FINISHED_AT)) : null;
+
+        var endedAt = finishedAt != null ? finishedAt : Instant.now().toEpochMilli();
+        var elapsedSeconds = Math.max(endedAt - startedAt, 1L) / 1000.0;
+
+        return HeatJobDto.builder()
+                .jobId(jobId)
+                .status(HeatJobStatus.valueOf((String) fields.get(STATUS)))
+                .usersProcessed(usersProcessed)
+                .eventsSent(eventsSent)
+                .startedAt(toDateTime(startedAt))
+                .finishedAt(finishedAt != null ? toDateTime(finishedAt) : null)
+                .usersPerSecond(usersProcessed / elapsedSeconds)
+                .eventsPerSecond(eventsSent / elapsedSeconds)
+                .build();
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
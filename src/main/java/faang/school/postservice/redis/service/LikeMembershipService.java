@@ -0,0 +1,57 @@
+package faang.school.postservice.redis.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Keeps the ids of the users who liked a post or a comment in a Redis set per post and per comment, so a like is
+ * checked for duplicates with one O(1) SADD instead of loading the like collection. A set only knows the likes added
+ * since it was created, so it rejects duplicates early but never confirms a like is new: the unique constraints on
+ * the likes table stay the source of truth.
+ */
+@Service
+@RequiredArgsConstructor
+public class LikeMembershipService {
+    @Value("${spring.data.redis.like-membership.post-key-prefix:post-likers:}")
+    private String postKeyPrefix;
+    @Value("${spring.data.redis.like-membership.comment-key-prefix:comment-likers:}")
+    private String commentKeyPrefix;
+    @Value("${spring.data.redis.like-membership.ttl-seconds:604800}")
+    private long ttlSeconds;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisScript<Long> setAddWithTtlScript;
+
+    /**
+     * Records the user as a liker of the post; returns false when they already were.
+     */
+    public boolean addPostLiker(Long postId, Long userId) {
+        return addMember(postKeyPrefix + postId, userId);
+    }
+
+    public void removePostLiker(Long postId, Long userId) {
+        stringRedisTemplate.opsForSet().remove(postKeyPrefix + postId, String.valueOf(userId));
+    }
+
+    /**
+     * Records the user as a liker of the comment; returns false when they already were.
+     */
+    public boolean addCommentLiker(Long commentId, Long userId) {
+        return addMember(commentKeyPrefix + commentId, userId);
+    }
+
+    public void removeCommentLiker(Long commentId, Long userId) {
+        stringRedisTemplate.opsForSet().remove(commentKeyPrefix + commentId, String.valueOf(userId));
+    }
+
+    private boolean addMember(String key, Long userId) {
+        var added = stringRedisTemplate.execute(setAddWithTtlScript, List.of(key), String.valueOf(userId),
+                String.valueOf(ttlSeconds));
+        return added != null && added == 1;
+    }
+}
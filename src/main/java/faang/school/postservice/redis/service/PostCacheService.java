@@ -1,7 +1,11 @@
 package faang.school.postservice.redis.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.redis.cache.NearCache;
+import faang.school.postservice.redis.cache.StampedeGuard;
 import faang.school.postservice.redis.mapper.PostCacheMapper;
 import faang.school.postservice.redis.model.PostCache;
 import faang.school.postservice.redis.repository.PostCacheRepository;
@@ -10,11 +14,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.StreamSupport;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Service
 @Slf4j
@@ -27,85 +38,257 @@ public class PostCacheService {
     private String postCacheKeyPrefix;
     @Value("${spring.data.redis.post-cache.comments-per-post:3}")
     private int commentLimitPerPost;
+    @Value("${spring.data.redis.post-cache.comments-key-prefix:post-comments:}")
+    private String commentRingKeyPrefix;
+    @Value("${spring.data.redis.post-cache.ttl-seconds:86400}")
+    private long postCacheTtlSeconds;
 
     @Qualifier("redisCacheTemplate")
     private final RedisTemplate<String, Object> redisTemplate;
     private final PostCacheRepository postCacheRepository;
     private final PostCacheMapper postCacheMapper;
     private final PostRetrievalService postRetrievalService;
+    private final NearCache nearCache;
+    private final StampedeGuard stampedeGuard;
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> incrementIfExistsScript;
+    private final RedisScript<Long> commentRingScript;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * View deltas of posts whose cache entry is being loaded, by post id. An entry exists while a load is in
+     * flight; misses on the same post only add their delta to it instead of loading again.
+     */
+    private final ConcurrentMap<Long, Long> pendingViewLoads = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("rawtypes")
     public PostCacheService(RedisTemplate<String, Object> redisTemplate, PostCacheRepository postCacheRepository,
-                            PostCacheMapper postCacheMapper, PostRetrievalService postRetrievalService) {
+                            PostCacheMapper postCacheMapper, PostRetrievalService postRetrievalService,
+                            NearCache nearCache, StampedeGuard stampedeGuard,
+                            RedisScript<List> incrementIfExistsScript,
+                            RedisScript<Long> commentRingScript, ObjectMapper objectMapper) {
         this.redisTemplate = redisTemplate;
         this.postCacheRepository = postCacheRepository;
         this.postCacheMapper = postCacheMapper;
         this.postRetrievalService = postRetrievalService;
+        this.nearCache = nearCache;
+        this.stampedeGuard = stampedeGuard;
+        this.incrementIfExistsScript = incrementIfExistsScript;
+        this.commentRingScript = commentRingScript;
+        this.objectMapper = objectMapper;
     }
 
-    public void incrementConcurrentPostViews(Long postId){
-        if (postCacheRepository.existsById(postId)) {
-            redisTemplate.opsForHash()
-                    .increment(generateCachePostKey(postId), postCacheViewsField, 1);
-        }else {
-            var postDto = postRetrievalService.getPostById(postId);
-            savePostCache(postDto);
+    /**
+     * Applies view deltas and returns the ones that could not be applied, so the caller retries only those. An
+     * exception means the increment script itself failed and none of the deltas were applied.
+     */
+    public Map<Long, Long> incrementPostViews(Map<Long, Long> viewDeltas) {
+        var failedDeltas = new HashMap<Long, Long>();
+        var loadingPostIds = incrementIfExists(postCacheViewsField, viewDeltas).stream()
+                .filter(postId -> addPendingViews(postId, viewDeltas.get(postId)))
+                .toList();
+        if (!loadingPostIds.isEmpty()) {
+            loadMissedPostViews(loadingPostIds, failedDeltas);
         }
+        return failedDeltas;
+    }
+
+    /**
+     * Applies like deltas to the cached posts. Uncached posts are skipped rather than loaded: the like count of the
+     * post row already includes these likes, so a post cached later starts from the right value.
+     */
+    public void incrementPostLikes(Map<Long, Long> likeDeltas) {
+        var missedPostIds = incrementIfExists(postCacheLikesField, likeDeltas);
+        log.debug("Likes of {} uncached posts are left to the post rows.", missedPostIds.size());
+    }
+
+    /**
+     * Adds a batch of comments grouped by post to the capped comment rings of their posts with one script call.
+     * A ring is a sorted set next to the post hash ordered by comment id, so redelivered comments are not
+     * duplicated and only the latest ones are kept whatever the order of arrival.
+     */
+    public void addCommentsToCachedPosts(Map<Long, List<CommentDto>> commentsByPostId) {
+        addToCommentRings(commentsByPostId);
+        commentsByPostId.keySet().forEach(nearCache::evictPost);
+    }
+
+    /**
+     * Loads posts from the database and caches them; how long the load took drives their early refresh. Misses and
+     * refreshes go through {@link StampedeGuard} with this loader under the post key prefix.
+     */
+    public Map<Long, PostDto> loadPosts(List<Long> postIds) {
+        var startedAt = System.currentTimeMillis();
+        var postDtos = postRetrievalService.getPostsByIds(postIds);
+        savePostCaches(postDtos, System.currentTimeMillis() - startedAt);
+
+        var loadedPosts = new HashMap<Long, PostDto>();
+        postDtos.forEach(postDto -> loadedPosts.put(postDto.getId(), postDto));
+        return loadedPosts;
+    }
+
+    /**
+     * Caches the post and seeds its comment ring with the latest comments the post was loaded with.
+     */
+    public PostCache savePostCache(PostDto postDto) {
+        var postCache = postCacheMapper.toPostCache(postDto);
+        var savedPostCache = postCacheRepository.save(postCache);
+        seedCommentRings(List.of(postDto));
+        nearCache.evictPost(postCache.getId());
+        return savedPostCache;
+    }
+
+    public void savePostCaches(List<PostDto> postDtos) {
+        savePostCaches(postDtos, 0L);
     }
 
-    public void incrementConcurrentPostLikes(Long postId) {
-        if (postCacheRepository.existsById(postId)){
-            redisTemplate.opsForHash()
-                    .increment(generateCachePostKey(postId), postCacheLikesField, 1);
-        } else {
-            var postDto = postRetrievalService.getPostById(postId);
-            savePostCache(postDto);
+    /**
+     * Saves posts loaded from the database; {@code loadMillis} is how long the load took and drives early refresh.
+     */
+    public void savePostCaches(List<PostDto> postDtos, long loadMillis) {
+        postCacheRepository.saveAll(postDtos.stream()
+                .map(postCacheMapper::toPostCache)
+                .toList(), loadMillis);
+        seedCommentRings(postDtos);
+        postDtos.forEach(postDto -> nearCache.evictPost(postDto.getId()));
+    }
+
+    /**
+     * Increments the counter of the cached posts in one round trip and returns the ids of the posts that missed.
+     * Near-cached copies are not invalidated: counters change on every flush, and their copies may lag by the near
+     * cache TTL.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Long> incrementIfExists(String field, Map<Long, Long> deltas) {
+        var postIds = List.copyOf(deltas.keySet());
+        var postKeys = postIds.stream()
+                .map(this::generateCachePostKey)
+                .toList();
+        var args = new ArrayList<Object>();
+        args.add(field);
+        postIds.forEach(postId -> args.add(String.valueOf(deltas.get(postId))));
+
+        var flags = (List<Long>) redisTemplate.execute(incrementIfExistsScript, RedisSerializer.string(),
+                (RedisSerializer) RedisSerializer.string(), postKeys, args.toArray());
+        var missedPostIds = new ArrayList<Long>();
+        for (int i = 0; i < postIds.size(); i++) {
+            if (flags.get(i) != 1L) {
+                missedPostIds.add(postIds.get(i));
+            }
         }
+        return missedPostIds;
     }
 
-    public void addCommentToCachedPost(Long postId, CommentDto commentDto) {
-        var postCache = postCacheRepository.findById(postId)
-                .orElseGet(() -> createAndCachePost(postId));
+    /**
+     * Adds the delta to the views pending for a missed post and tells whether the caller is the one to load it. Misses
+     * racing on the same post only add their delta, so the post is loaded once.
+     */
+    private boolean addPendingViews(Long postId, long delta) {
+        var loader = new boolean[1];
+        pendingViewLoads.compute(postId, (id, pending) -> {
+            loader[0] = pending == null;
+            return pending == null ? delta : pending + delta;
+        });
+        return loader[0];
+    }
+
+    /**
+     * Views live only in the cache, so missed posts are loaded to hold them, under the same lease as feed misses so a
+     * burst of views on an expired post does not load it on every instance. Once cached, the posts get every view that
+     * arrived meanwhile through the increment script, which also keeps views written by a concurrent loader. Posts
+     * that no longer exist drop their views; the views of posts that fail to load are added to {@code failedDeltas}.
+     */
+    private void loadMissedPostViews(List<Long> postIds, Map<Long, Long> failedDeltas) {
+        Set<Long> cachedPostIds;
+        try {
+            cachedPostIds = stampedeGuard.loadAll(postCacheKeyPrefix, postIds, this::readCachedPosts, this::loadPosts)
+                    .keySet();
+        } catch (RuntimeException e) {
+            log.error("Failed to load {} posts to add their views.", postIds.size(), e);
+            postIds.forEach(postId -> failedDeltas.merge(postId, takePendingViews(postId), Long::sum));
+            return;
+        }
+
+        var viewDeltas = new HashMap<Long, Long>();
+        postIds.forEach(postId -> {
+            var views = takePendingViews(postId);
+            if (!cachedPostIds.contains(postId)) {
+                log.warn("Post with id {} no longer exists, its {} pending views are dropped.", postId, views);
+            } else if (views > 0) {
+                viewDeltas.put(postId, views);
+            }
+        });
+        if (viewDeltas.isEmpty()) {
+            return;
+        }
 
-        if (postCache != null) {
-            verifyAndAddComment(postCache, commentDto);
+        try {
+            incrementIfExists(postCacheViewsField, viewDeltas).forEach(postId ->
+                    failedDeltas.merge(postId, viewDeltas.get(postId), Long::sum));
+        } catch (RuntimeException e) {
+            log.error("Failed to add views to {} loaded posts.", viewDeltas.size(), e);
+            viewDeltas.forEach((postId, views) -> failedDeltas.merge(postId, views, Long::sum));
         }
     }
 
-    public List<PostCache> getPostCacheByIds(List<Long> postIds) {
-        var iterable = postCacheRepository.findAllById(postIds);
-        return StreamSupport.stream(iterable.spliterator(), false)
-                .toList();
+    private Map<Long, PostDto> readCachedPosts(List<Long> postIds) {
+        var cachedPosts = new HashMap<Long, PostDto>();
+        postCacheRepository.findAllById(postIds).forEach(postCache ->
+                cachedPosts.put(postCache.getId(), postCacheMapper.toDto(postCache)));
+        return cachedPosts;
     }
 
-    public PostCache savePostCache(PostDto postDto) {
-        var postCache = postCacheMapper.toPostCache(postDto);
-        return postCacheRepository.save(postCache);
+    private long takePendingViews(Long postId) {
+        var pending = pendingViewLoads.remove(postId);
+        return pending == null ? 0L : pending;
     }
 
     private String generateCachePostKey(Long postId) {
         return postCacheKeyPrefix + postId;
     }
 
-    private PostCache createAndCachePost(Long postId) {
-        var postDto = postRetrievalService.getPostById(postId);
-        return savePostCache(postDto);
+    private String generateCommentRingKey(Long postId) {
+        return commentRingKeyPrefix + postId;
     }
 
-    private void verifyAndAddComment(PostCache postCache, CommentDto commentDto) {
-        CopyOnWriteArrayList<CommentDto> comments = postCache.getComments();
-        removeOldestIfFull(comments);
-        addCommentIfNotPresent(comments, commentDto);
+    private void seedCommentRings(List<PostDto> postDtos) {
+        var commentsByPostId = new HashMap<Long, List<CommentDto>>();
+        postDtos.stream()
+                .filter(postDto -> postDto.getComments() != null && !postDto.getComments().isEmpty())
+                .forEach(postDto -> commentsByPostId.put(postDto.getId(), postDto.getComments().stream()
+                        .filter(commentDto -> commentDto.getId() != null)
+                        .sorted(Comparator.comparing(CommentDto::getId).reversed())
+                        .limit(commentLimitPerPost)
+                        .toList()));
+        if (!commentsByPostId.isEmpty()) {
+            addToCommentRings(commentsByPostId);
+        }
     }
 
-    private void removeOldestIfFull(CopyOnWriteArrayList<CommentDto> comments) {
-        if (comments.size() == commentLimitPerPost) {
-            comments.remove(comments.size() - 1);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void addToCommentRings(Map<Long, List<CommentDto>> commentsByPostId) {
+        var ringKeys = new ArrayList<String>();
+        var args = new ArrayList<Object>();
+        args.add(String.valueOf(commentLimitPerPost));
+        args.add(String.valueOf(postCacheTtlSeconds));
+        commentsByPostId.forEach((postId, comments) -> comments.stream()
+                .filter(commentDto -> commentDto.getId() != null)
+                .forEach(commentDto -> {
+                    ringKeys.add(generateCommentRingKey(postId));
+                    args.add(String.valueOf(commentDto.getId()));
+                    args.add(writeComment(commentDto));
+                }));
+
+        if (!ringKeys.isEmpty()) {
+            redisTemplate.execute(commentRingScript, RedisSerializer.string(), (RedisSerializer) RedisSerializer.string(),
+                    ringKeys, args.toArray());
         }
     }
 
-    private void addCommentIfNotPresent(CopyOnWriteArrayList<CommentDto> comments, CommentDto commentDto){
-        if (!comments.contains(commentDto)){
-            comments.add(0, commentDto);
+    private String writeComment(CommentDto commentDto) {
+        try {
+            return objectMapper.writeValueAsString(commentDto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to write comment with id " + commentDto.getId(), e);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,13 @@
 package faang.school.postservice.repository;
 
 import faang.school.postservice.model.Comment;
+import faang.school.postservice.repository.projection.CommentPreview;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +15,24 @@ public interface CommentRepository extends CrudRepository<Comment, Long> {
 
     @Query("SELECT c FROM Comment c WHERE c.post.id = :postId")
     List<Comment> findAllByPostId(long postId);
+
+    /**
+     * Returns the latest {@code limit} comments of every given post, newest first within a post.
+     */
+    @Query(value = """
+            SELECT ranked.id AS "id", ranked.content AS "content", ranked.author_id AS "authorId",
+                   ranked.post_id AS "postId", ranked.like_count AS "likeCount",
+                   CAST(ranked.created_at AS timestamp) AS "createdAt",
+                   CAST(ranked.updated_at AS timestamp) AS "updatedAt"
+            FROM (SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.post_id ORDER BY c.id DESC) AS position
+                  FROM comment c
+                  WHERE c.post_id IN (:postIds)) ranked
+            WHERE ranked.position <= :limit
+            ORDER BY ranked.post_id, ranked.id DESC
+            """, nativeQuery = true)
+    List<CommentPreview> findLatestByPostIds(Collection<Long> postIds, int limit);
+
+    @Modifying
+    @Query(value = "UPDATE comment SET like_count = like_count + :delta WHERE id = :commentId", nativeQuery = true)
+    void incrementLikeCount(long commentId, int delta);
 }
@@ -0,0 +1,75 @@
+package faang.school.postservice.repository;
+
+import faang.school.postservice.dto.like.LikeDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Set-based writes for post likes that arrive in batches. Each method costs one statement (or one JDBC batch)
+ * whatever the number of likes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LikeBatchRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the author of each existing post; ids of missing posts are left out.
+     */
+    public Map<Long, Long> findPostAuthors(Collection<Long> postIds) {
+        var authors = new HashMap<Long, Long>();
+        jdbcTemplate.query("SELECT id, author_id FROM post WHERE id IN (:postIds)", Map.of("postIds", postIds),
+                resultSet -> {
+                    authors.put(resultSet.getLong("id"), resultSet.getObject("author_id", Long.class));
+                });
+        return authors;
+    }
+
+    /**
+     * Inserts the likes with one multi-row statement. Likes the unique indexes reject are skipped instead of failing
+     * the batch, so only the inserted ones are returned.
+     */
+    public List<LikeDto> insertPostLikes(List<LikeDto> likes) {
+        if (likes.isEmpty()) {
+            return List.of();
+        }
+
+        var sql = "INSERT INTO likes (post_id, user_id) VALUES "
+                + String.join(", ", Collections.nCopies(likes.size(), "(?, ?)"))
+                + " ON CONFLICT DO NOTHING RETURNING id, post_id, user_id";
+        var args = new ArrayList<>(likes.size() * 2);
+        likes.forEach(like -> {
+            args.add(like.getPostId());
+            args.add(like.getUserId());
+        });
+
+        return jdbcTemplate.getJdbcOperations().query(sql, (resultSet, rowNum) -> LikeDto.builder()
+                .id(resultSet.getLong("id"))
+                .postId(resultSet.getLong("post_id"))
+                .userId(resultSet.getLong("user_id"))
+                .build(), args.toArray());
+    }
+
+    /**
+     * Adds the deltas to the posts' like counters in one JDBC batch. Rows are updated in post id order so concurrent
+     * batches lock them in the same order.
+     */
+    public void incrementPostLikeCounts(SortedMap<Long, Integer> likesByPostId) {
+        if (likesByPostId.isEmpty()) {
+            return;
+        }
+
+        var args = new ArrayList<Object[]>(likesByPostId.size());
+        likesByPostId.forEach((postId, delta) -> args.add(new Object[]{delta, postId}));
+        jdbcTemplate.getJdbcOperations().batchUpdate("UPDATE post SET like_count = like_count + ? WHERE id = ?", args);
+    }
+}
@@ -1,7 +1,10 @@
 package faang.school.postservice.repository;
 
 import faang.school.postservice.model.Like;
+import faang.school.postservice.repository.projection.LikerReference;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,13 +13,23 @@ import java.util.Optional;
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Long> {
 
-    void deleteByPostIdAndUserId(long postId, long userId);
+    long deleteByPostIdAndUserId(long postId, long userId);
 
-    void deleteByCommentIdAndUserId(long commentId, long userId);
+    long deleteByCommentIdAndUserId(long commentId, long userId);
 
-    List<Like> findByPostId(long postId);
+    /**
+     * Likers of a post in like id order, starting after the given like id.
+     */
+    @Query("SELECT new faang.school.postservice.repository.projection.LikerReference(l.id, l.userId) FROM Like l "
+            + "WHERE l.post.id = :postId AND l.comment IS NULL AND l.id > :afterLikeId ORDER BY l.id")
+    List<LikerReference> findPostLikersAfter(long postId, long afterLikeId, Pageable pageable);
 
-    List<Like> findByCommentId(long commentId);
+    /**
+     * Likers of a comment in like id order, starting after the given like id.
+     */
+    @Query("SELECT new faang.school.postservice.repository.projection.LikerReference(l.id, l.userId) FROM Like l "
+            + "WHERE l.comment.id = :commentId AND l.id > :afterLikeId ORDER BY l.id")
+    List<LikerReference> findCommentLikersAfter(long commentId, long afterLikeId, Pageable pageable);
 
     Optional<Like> findByPostIdAndUserId(long postId, long userId);
 
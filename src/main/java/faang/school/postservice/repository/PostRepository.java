@@ -1,12 +1,15 @@
 package faang.school.postservice.repository;
 
 import faang.school.postservice.model.Post;
+import faang.school.postservice.repository.projection.PostReference;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
@@ -27,4 +30,16 @@ public interface PostRepository extends JpaRepository<Post, Long> {
 
     @Query("SELECT p FROM Post p WHERE p.published = false AND p.deleted = false AND p.scheduledAt <= CURRENT_TIMESTAMP")
     List<Post> findReadyToPublish();
+
+    @Query("SELECT new faang.school.postservice.repository.projection.PostReference(p.id, p.authorId) "
+            + "FROM Post p WHERE p.id = :postId")
+    Optional<PostReference> findReferenceById(long postId);
+
+    @Modifying
+    @Query(value = "UPDATE post SET like_count = like_count + :delta WHERE id = :postId", nativeQuery = true)
+    void incrementLikeCount(long postId, int delta);
+
+    @Modifying
+    @Query(value = "UPDATE post SET comment_count = comment_count + :delta WHERE id = :postId", nativeQuery = true)
+    void incrementCommentCount(long postId, int delta);
 }
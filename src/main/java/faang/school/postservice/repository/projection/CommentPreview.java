@@ -0,0 +1,22 @@
+package faang.school.postservice.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comment columns without the post and the likes, for showing a comment under a post.
+ */
+public interface CommentPreview {
+    Long getId();
+
+    String getContent();
+
+    Long getAuthorId();
+
+    Long getPostId();
+
+    Integer getLikeCount();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
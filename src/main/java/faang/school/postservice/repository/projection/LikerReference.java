@@ -0,0 +1,7 @@
+package faang.school.postservice.repository.projection;
+
+/**
+ * A like reduced to its id, the keyset cursor of liker pages, and the user who left it.
+ */
+public record LikerReference(Long likeId, Long userId) {
+}
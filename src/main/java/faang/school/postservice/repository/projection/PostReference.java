@@ -0,0 +1,7 @@
+package faang.school.postservice.repository.projection;
+
+/**
+ * Id and author of a post, for writes that only need to know the post exists and who to notify.
+ */
+public record PostReference(Long id, Long authorId) {
+}
@@ -9,6 +9,7 @@ import faang.school.postservice.redis.service.AuthorCacheService;
 import faang.school.postservice.repository.CommentRepository;
 import faang.school.postservice.repository.PostRepository;
 import faang.school.postservice.service.comment.error.CommentServiceErrors;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +26,7 @@ public class CommentService {
     private final EventsGenerator eventsGenerator;
     private final AuthorCacheService authorCacheService;
 
+    @Transactional
     public CommentDto addComment(Long postId, CommentDto commentDto) {
         if (commentDto.getContent() == null || commentDto.getContent().isBlank()) {
             throw new IllegalArgumentException(CommentServiceErrors.COMMENT_IS_EMPTY.getValue());
@@ -37,13 +39,13 @@ public class CommentService {
         Post post = getPost(postId);
         comment.setPost(post);
         Comment saveComment = repository.save(comment);
-        post.getComments().add(saveComment);
+        postRepository.incrementCommentCount(postId, 1);
         post.setUpdatedAt(LocalDateTime.now());
         postRepository.save(post);
         var savedCommentDto = mapper.toDto(saveComment);
 
         eventsGenerator.generateAndSendCommentEventToKafka(savedCommentDto);
-        authorCacheService.saveAuthorCache(savedCommentDto.getAuthorId());
+        authorCacheService.refreshAuthorIfStale(savedCommentDto.getAuthorId());
 
         return savedCommentDto;
 
@@ -77,9 +79,13 @@ public class CommentService {
         return mapper.toDto(comment);
     }
 
+    @Transactional
     public CommentDto deleteComment(Long postId, CommentDto commentDto) {
         getPost(postId);
-        repository.deleteById(commentDto.getId());
+        repository.findById(commentDto.getId()).ifPresent(comment -> {
+            repository.delete(comment);
+            postRepository.incrementCommentCount(comment.getPost().getId(), -1);
+        });
         return commentDto;
     }
 
@@ -97,7 +103,6 @@ public class CommentService {
 
     private void equalUpdateComment(CommentDto commentDto, CommentDto currentCommentDto) {
         if (!Objects.equals(commentDto.getAuthorId(), currentCommentDto.getAuthorId())
-                || !Objects.equals(commentDto.getLikes(), currentCommentDto.getLikes())
                 || !Objects.equals(commentDto.getPostId(), currentCommentDto.getPostId())
                 || !Objects.equals(commentDto.getCreatedAt(), currentCommentDto.getCreatedAt())
                 || !Objects.equals(commentDto.getUpdatedAt(), currentCommentDto.getUpdatedAt())
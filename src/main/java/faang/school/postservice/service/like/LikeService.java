@@ -1,10 +1,13 @@
 package faang.school.postservice.service.like;
 
 import faang.school.postservice.dto.like.LikeDto;
+import faang.school.postservice.dto.like.LikersPageDto;
 import faang.school.postservice.dto.user.UserDto;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @Service
 public interface LikeService {
@@ -14,7 +17,15 @@ public interface LikeService {
 
     LikeDto addPostLike(LikeDto likeDto);
 
+    CompletableFuture<LikeDto> submitPostLike(LikeDto likeDto);
+
     void deletePostLike(LikeDto likeDto);
-    List<UserDto> findUsersByPostId(Long postId);
-    List<UserDto> findUsersByCommentId(Long commentId);
+
+    LikersPageDto findPostLikers(Long postId, Long afterLikeId, int limit);
+
+    LikersPageDto findCommentLikers(Long commentId, Long afterLikeId, int limit);
+
+    void forEachPostLikersPage(Long postId, Consumer<List<UserDto>> pageConsumer);
+
+    void forEachCommentLikersPage(Long commentId, Consumer<List<UserDto>> pageConsumer);
 }
@@ -1,32 +1,44 @@
 package faang.school.postservice.service.like;
 
 import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.config.context.UserContext;
 import faang.school.postservice.dto.like.LikeDto;
+import faang.school.postservice.dto.like.LikersPageDto;
 import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.event.LikeEvent;
+import faang.school.postservice.exception.DuplicateLikeException;
 import faang.school.postservice.kafka.EventsGenerator;
 import faang.school.postservice.mapper.CommentMapper;
 import faang.school.postservice.mapper.LikeMapper;
-import faang.school.postservice.mapper.PostMapper;
 import faang.school.postservice.model.Comment;
 import faang.school.postservice.model.Like;
-import faang.school.postservice.model.Post;
 import faang.school.postservice.publisher.LikeEventPublisher;
+import faang.school.postservice.redis.service.LikeMembershipService;
+import faang.school.postservice.repository.CommentRepository;
 import faang.school.postservice.repository.LikeRepository;
+import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.projection.LikerReference;
 import faang.school.postservice.service.comment.CommentService;
-import faang.school.postservice.service.post.PostService;
+import faang.school.postservice.service.post.PostRetrievalService;
 import faang.school.postservice.validator.LikeValidator;
-import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static java.lang.Math.min;
 
@@ -35,17 +47,27 @@ import static java.lang.Math.min;
 @Setter
 @RequiredArgsConstructor
 public class LikeServiceImpl implements LikeService {
+    private static final String UNIQUE_POST_LIKE_INDEX = "uq_likes_post_user";
+    private static final String UNIQUE_COMMENT_LIKE_INDEX = "uq_likes_comment_user";
+
     @Value("${like-service.batch-size}")
     private int batchSize;
+    @Value("${like-service.likers-page-size:1000}")
+    private int likersPageSize;
     private final LikeValidator likeValidator;
     private final LikeRepository likeRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
     private final LikeMapper likeMapper;
     private final LikeEventPublisher likePublisher;
-    private final PostService postService;
+    private final PostRetrievalService postRetrievalService;
     private final CommentService commentService;
-    private final PostMapper postMapper;
     private final CommentMapper commentMapper;
     private final UserServiceClient userServiceClient;
+    private final UserContext userContext;
+    private final Executor likersExecutor;
+    private final LikeMembershipService likeMembershipService;
+    private final PostLikeBatchWriter postLikeBatchWriter;
 
     private final EventsGenerator eventsGenerator;
 
@@ -54,10 +76,11 @@ public class LikeServiceImpl implements LikeService {
     public void deleteCommentLike(LikeDto likeDto) {
         Long userId = likeDto.getUserId();
         Long commentId = likeDto.getCommentId();
-        Like like = likeMapper.toEntity(likeDto);
-        Comment comment = commentMapper.toEntity(commentService.getComment(commentId));
-        comment.getLikes().remove(like);
-        likeRepository.deleteByCommentIdAndUserId(commentId, userId);
+        commentService.getComment(commentId);
+        if (likeRepository.deleteByCommentIdAndUserId(commentId, userId) > 0) {
+            commentRepository.incrementLikeCount(commentId, -1);
+        }
+        likeMembershipService.removeCommentLiker(commentId, userId);
     }
 
     @Override
@@ -67,10 +90,10 @@ public class LikeServiceImpl implements LikeService {
         Long commentId = likeDto.getCommentId();
         likeValidator.validateUserExistence(userId);
         Comment comment = commentMapper.toEntity(commentService.getComment(commentId));
-        likeValidator.validateLikeToComment(comment, userId);
-        Like like = likeMapper.toEntity(likeDto);
-        comment.getLikes().add(like);
-        like = likeRepository.save(like);
+        likeValidator.validateLikeToComment(commentId, userId);
+        forgetLikerOnRollback(() -> likeMembershipService.removeCommentLiker(commentId, userId));
+        Like like = saveLike(likeMapper.toEntity(likeDto), "User has already liked this comment.");
+        commentRepository.incrementLikeCount(commentId, 1);
         publisher(userId, null, commentId, comment.getAuthorId());
         log.info("Like with likeId = {} added on comment with commentId = {} by user with userId = {}",
                 like.getId(),
@@ -85,31 +108,75 @@ public class LikeServiceImpl implements LikeService {
         Long userId = likeDto.getUserId();
         Long postId = likeDto.getPostId();
         likeValidator.validateUserExistence(userId);
-        Post post = postMapper.toEntity(postService.getPost(postId));
-        likeValidator.validateLikeToPost(post, userId);
-        Like like = likeMapper.toEntity(likeDto);
-        post.getLikes().add(like);
-        like = likeRepository.save(like);
-        publisher(userId, postId, null, post.getAuthorId());
+        var post = postRetrievalService.getPostReference(postId);
+        likeValidator.validateLikeToPost(postId, userId);
+        forgetLikerOnRollback(() -> likeMembershipService.removePostLiker(postId, userId));
+        Like like = saveLike(likeMapper.toEntity(likeDto), "User has already liked this post.");
+        postRepository.incrementLikeCount(postId, 1);
+        publisher(userId, postId, null, post.authorId());
         log.info("Like with likeId = {} added on post with postId = {} by user with userId = {}",
                 like.getId(),
                 postId,
                 userId);
 
-        eventsGenerator.generateAndSendLikeEvent(postMapper.toDto(post));
+        eventsGenerator.generateAndSendLikeEvent(postId, post.authorId(), 1);
 
         return likeMapper.toDto(like);
     }
 
+    /**
+     * Group-commit variant of addPostLike: only the Redis duplicate check runs on the request thread, the user and
+     * post checks and the insert are done per batch by the writer.
+     */
+    @Override
+    public CompletableFuture<LikeDto> submitPostLike(LikeDto likeDto) {
+        likeValidator.validateLikeToPost(likeDto.getPostId(), likeDto.getUserId());
+        return postLikeBatchWriter.submit(likeDto);
+    }
+
     @Override
     @Transactional
     public void deletePostLike(LikeDto likeDto) {
         Long userId = likeDto.getUserId();
         Long postId = likeDto.getPostId();
-        Like like = likeMapper.toEntity(likeDto);
-        Post post = postMapper.toEntity(postService.getPost(postId));
-        post.getLikes().remove(like);
-        likeRepository.deleteByPostIdAndUserId(postId, userId);
+        postRetrievalService.getPostReference(postId);
+        if (likeRepository.deleteByPostIdAndUserId(postId, userId) > 0) {
+            postRepository.incrementLikeCount(postId, -1);
+        }
+        likeMembershipService.removePostLiker(postId, userId);
+    }
+
+    /**
+     * Inserts the like; the unique indexes on the likes table catch the duplicates the Redis liker sets missed.
+     */
+    private Like saveLike(Like like, String duplicateMessage) {
+        try {
+            return likeRepository.save(like);
+        } catch (DataIntegrityViolationException e) {
+            var cause = e.getMostSpecificCause().getMessage();
+            if (cause != null && (cause.contains(UNIQUE_POST_LIKE_INDEX) || cause.contains(UNIQUE_COMMENT_LIKE_INDEX))) {
+                throw new DuplicateLikeException(duplicateMessage);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The liker is added to the Redis set before the like is inserted; take it back out if the insert does not commit,
+     * so a failed like does not block the next attempt.
+     */
+    private void forgetLikerOnRollback(Runnable removeLiker) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    removeLiker.run();
+                }
+            }
+        });
     }
 
     private void publisher(Long userId, Long postId, Long commentId, Long authorId) {
@@ -124,39 +191,74 @@ public class LikeServiceImpl implements LikeService {
         likePublisher.publish(event);
     }
 
-    public List<UserDto> findUsersByPostId(Long postId) {
-        var userIds = likeRepository.findByPostId(postId).stream()
-                .map(Like::getUserId)
-                .toList();
-        checkUserIdListEmpty(userIds, postId);
+    /**
+     * One page of a post's likers, after the given like id (from the start when null). Only the user ids are read
+     * from the likes table; the users are fetched from the user service in parallel batches.
+     */
+    @Override
+    public LikersPageDto findPostLikers(Long postId, Long afterLikeId, int limit) {
+        var pageSize = pageSize(limit);
+        return toLikersPage(likeRepository.findPostLikersAfter(postId, cursorOrStart(afterLikeId),
+                PageRequest.ofSize(pageSize)), pageSize);
+    }
 
-        return getUsersInBatches(userIds);
+    @Override
+    public LikersPageDto findCommentLikers(Long commentId, Long afterLikeId, int limit) {
+        var pageSize = pageSize(limit);
+        return toLikersPage(likeRepository.findCommentLikersAfter(commentId, cursorOrStart(afterLikeId),
+                PageRequest.ofSize(pageSize)), pageSize);
     }
 
-    public List<UserDto> findUsersByCommentId(Long commentId) {
-        var userIds = likeRepository.findByCommentId(commentId).stream()
-                .map(Like::getUserId)
-                .toList();
-        checkUserIdListEmpty(userIds, commentId);
+    /**
+     * Walks all likers of the post page by page, so only one page is held in memory at a time.
+     */
+    @Override
+    public void forEachPostLikersPage(Long postId, Consumer<List<UserDto>> pageConsumer) {
+        forEachLikersPage(afterLikeId -> findPostLikers(postId, afterLikeId, likersPageSize), pageConsumer);
+    }
 
-        return getUsersInBatches(userIds);
+    @Override
+    public void forEachCommentLikersPage(Long commentId, Consumer<List<UserDto>> pageConsumer) {
+        forEachLikersPage(afterLikeId -> findCommentLikers(commentId, afterLikeId, likersPageSize), pageConsumer);
     }
 
-    private List<UserDto> getUsersInBatches(List<Long> userIds) {
-        List<UserDto> allUsers = new ArrayList<>();
+    private void forEachLikersPage(Function<Long, LikersPageDto> pageLoader, Consumer<List<UserDto>> pageConsumer) {
+        Long afterLikeId = null;
+        do {
+            var page = pageLoader.apply(afterLikeId);
+            pageConsumer.accept(page.users());
+            afterLikeId = page.nextCursor();
+        } while (afterLikeId != null);
+    }
 
-        for (int i = 0; i < userIds.size(); i += batchSize) {
-            int end = min(i + batchSize, userIds.size());
-            var batch = userIds.subList(i, end);
-            var batchUsers = userServiceClient.getUsersByIds(batch);
-            allUsers.addAll(batchUsers);
-        }
-        return allUsers;
+    private int pageSize(int limit) {
+        return Math.max(1, min(limit, likersPageSize));
     }
 
-    private void checkUserIdListEmpty(List<Long> userIds, Long id) {
-        if (userIds.isEmpty()) {
-            throw new EntityNotFoundException("No users found for ID " + id);
+    private static long cursorOrStart(Long afterLikeId) {
+        return afterLikeId == null ? 0 : afterLikeId;
+    }
+
+    private LikersPageDto toLikersPage(List<LikerReference> likers, int pageSize) {
+        var userIds = likers.stream()
+                .map(LikerReference::userId)
+                .toList();
+        var nextCursor = likers.size() < pageSize ? null : likers.get(likers.size() - 1).likeId();
+        return new LikersPageDto(getUsersConcurrently(userIds), nextCursor);
+    }
+
+    /**
+     * Fetches the users in batches of batchSize on the likers executor and keeps them in like order.
+     */
+    private List<UserDto> getUsersConcurrently(List<Long> userIds) {
+        var batches = new ArrayList<CompletableFuture<List<UserDto>>>();
+        for (int i = 0; i < userIds.size(); i += batchSize) {
+            var batch = userIds.subList(i, min(i + batchSize, userIds.size()));
+            batches.add(CompletableFuture.supplyAsync(
+                    userContext.propagate(() -> userServiceClient.getUsersByIds(batch)), likersExecutor));
         }
+        return batches.stream()
+                .flatMap(batch -> batch.join().stream())
+                .toList();
     }
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+package faang.school.postservice.service.like;
+
+import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.like.LikeDto;
+import faang.school.postservice.dto.user.UserDto;
+import faang.school.postservice.event.LikeEvent;
+import faang.school.postservice.exception.DataNotFoundException;
+import faang.school.postservice.exception.DuplicateLikeException;
+import faang.school.postservice.kafka.EventsGenerator;
+import faang.school.postservice.publisher.LikeEventPublisher;
+import faang.school.postservice.redis.service.LikeMembershipService;
+import faang.school.postservice.repository.LikeBatchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Group commit for post likes. Requests only pass the Redis liker-set check and queue their like; one writer thread
+ * takes what has queued up, waiting at most lingerMillis for a batch to fill, checks the users and the posts of the
+ * whole batch with one call each, inserts it with one multi-row statement and bumps every post counter once. Redis and
+ * Kafka notifications go out per batch, and each caller's future completes once its like is committed or rejected.
+ */
+@Component
+@Slf4j
+public class PostLikeBatchWriter {
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final LikeBatchRepository likeBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserServiceClient userServiceClient;
+    private final LikeMembershipService likeMembershipService;
+    private final LikeEventPublisher likePublisher;
+    private final EventsGenerator eventsGenerator;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final BlockingQueue<PendingLike> queue;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public PostLikeBatchWriter(LikeBatchRepository likeBatchRepository, TransactionTemplate transactionTemplate,
+                               UserServiceClient userServiceClient, LikeMembershipService likeMembershipService,
+                               LikeEventPublisher likePublisher, EventsGenerator eventsGenerator,
+                               @Value("${like-service.group-commit.max-batch-size:500}") int maxBatchSize,
+                               @Value("${like-service.group-commit.linger-millis:5}") long lingerMillis,
+                               @Value("${like-service.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.likeBatchRepository = likeBatchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.userServiceClient = userServiceClient;
+        this.likeMembershipService = likeMembershipService;
+        this.likePublisher = likePublisher;
+        this.eventsGenerator = eventsGenerator;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::run, "PostLikeBatchWriter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join();
+        }
+        flush();
+    }
+
+    /**
+     * Queues a like whose liker was already added to the Redis set. A full queue rejects the like right away so a
+     * burst cannot grow it without bound.
+     */
+    public CompletableFuture<LikeDto> submit(LikeDto likeDto) {
+        var pendingLike = new PendingLike(likeDto, new CompletableFuture<>());
+        if (!queue.offer(pendingLike)) {
+            likeMembershipService.removePostLiker(likeDto.getPostId(), likeDto.getUserId());
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many likes, try again later."));
+        }
+        return pendingLike.result();
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread.
+     */
+    public void flush() {
+        var batch = new ArrayList<PendingLike>(maxBatchSize);
+        while (queue.drainTo(batch, maxBatchSize) > 0) {
+            write(batch);
+            batch = new ArrayList<>(maxBatchSize);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                var batch = awaitBatch();
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<PendingLike> awaitBatch() throws InterruptedException {
+        var batch = new ArrayList<PendingLike>(maxBatchSize);
+        var first = queue.poll(IDLE_POLL_MILLIS, MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        var deadline = System.nanoTime() + MILLISECONDS.toNanos(lingerMillis);
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            var remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            var next = queue.poll(remaining, NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private synchronized void write(List<PendingLike> batch) {
+        try {
+            var knownUserIds = findKnownUserIds(batch);
+            var postAuthors = likeBatchRepository.findPostAuthors(batch.stream()
+                    .map(pendingLike -> pendingLike.like().getPostId())
+                    .collect(Collectors.toSet()));
+
+            var accepted = new ArrayList<PendingLike>(batch.size());
+            batch.forEach(pendingLike -> {
+                var like = pendingLike.like();
+                if (!knownUserIds.contains(like.getUserId())) {
+                    reject(pendingLike, new DataNotFoundException("Cant find user with id " + like.getUserId()));
+                } else if (!postAuthors.containsKey(like.getPostId())) {
+                    reject(pendingLike, new DataNotFoundException("Cant find post with id " + like.getPostId()));
+                } else {
+                    accepted.add(pendingLike);
+                }
+            });
+
+            var likesByPostId = new TreeMap<Long, Integer>();
+            var inserted = transactionTemplate.execute(status -> {
+                var insertedLikes = likeBatchRepository.insertPostLikes(accepted.stream()
+                        .map(PendingLike::like)
+                        .toList());
+                insertedLikes.forEach(like -> likesByPostId.merge(like.getPostId(), 1, Integer::sum));
+                likeBatchRepository.incrementPostLikeCounts(likesByPostId);
+                return insertedLikes;
+            });
+
+            complete(accepted, inserted);
+            notifyLikes(inserted, likesByPostId, postAuthors);
+            log.debug("{} of {} queued post likes were committed.", inserted.size(), batch.size());
+        } catch (Exception e) {
+            log.error("Failed to commit a batch of {} post likes.", batch.size(), e);
+            batch.stream()
+                    .filter(pendingLike -> !pendingLike.result().isDone())
+                    .forEach(pendingLike -> reject(pendingLike, e));
+        }
+    }
+
+    private Set<Long> findKnownUserIds(List<PendingLike> batch) {
+        var userIds = batch.stream()
+                .map(pendingLike -> pendingLike.like().getUserId())
+                .distinct()
+                .toList();
+        return userServiceClient.getUsersByIds(userIds).stream()
+                .map(UserDto::getId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Likes the insert skipped were already in the table; a like repeated within the batch gets the row once.
+     */
+    private void complete(List<PendingLike> accepted, List<LikeDto> inserted) {
+        var insertedByKey = new HashMap<LikeKey, LikeDto>();
+        inserted.forEach(like -> insertedByKey.put(new LikeKey(like.getPostId(), like.getUserId()), like));
+
+        accepted.forEach(pendingLike -> {
+            var like = insertedByKey.remove(new LikeKey(pendingLike.like().getPostId(),
+                    pendingLike.like().getUserId()));
+            if (like != null) {
+                pendingLike.result().complete(like);
+            } else {
+                pendingLike.result().completeExceptionally(
+                        new DuplicateLikeException("User has already liked this post."));
+            }
+        });
+    }
+
+    private void notifyLikes(List<LikeDto> inserted, Map<Long, Integer> likesByPostId, Map<Long, Long> postAuthors) {
+        try {
+            var completedAt = LocalDateTime.now();
+            likePublisher.publishAll(inserted.stream()
+                    .map(like -> LikeEvent.builder()
+                            .authorLikeId(like.getUserId())
+                            .postId(like.getPostId())
+                            .authorPostId(postAuthors.get(like.getPostId()))
+                            .completedAt(completedAt)
+                            .build())
+                    .toList());
+            likesByPostId.forEach((postId, likes) ->
+                    eventsGenerator.generateAndSendLikeEvent(postId, postAuthors.get(postId), likes));
+        } catch (Exception e) {
+            log.error("Failed to send notifications for {} committed post likes.", inserted.size(), e);
+        }
+    }
+
+    private void reject(PendingLike pendingLike, Throwable cause) {
+        likeMembershipService.removePostLiker(pendingLike.like().getPostId(), pendingLike.like().getUserId());
+        pendingLike.result().completeExceptionally(cause);
+    }
+
+    private record PendingLike(LikeDto like, CompletableFuture<LikeDto> result) {
+    }
+
+    private record LikeKey(Long postId, Long userId) {
+    }
+}
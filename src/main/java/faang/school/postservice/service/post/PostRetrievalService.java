@@ -1,20 +1,82 @@
 package faang.school.postservice.service.post;
 
+import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.mapper.CommentMapper;
 import faang.school.postservice.mapper.PostMapper;
+import faang.school.postservice.redis.cache.NearCache;
+import faang.school.postservice.redis.repository.PostCacheRepository;
+import faang.school.postservice.repository.CommentRepository;
 import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.projection.PostReference;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Loads posts the way the caches keep them: counters from the post row and only the latest comments, fetched for a
+ * whole batch of posts with one query instead of initializing every post's comment collection.
+ */
 @Service
 @RequiredArgsConstructor
 public class PostRetrievalService {
+    @Value("${spring.data.redis.post-cache.comments-per-post:3}")
+    private int commentLimitPerPost;
+
     private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
     private final PostMapper postMapper;
+    private final CommentMapper commentMapper;
+    private final NearCache nearCache;
+    private final PostCacheRepository postCacheRepository;
 
     public PostDto getPostById(Long postId){
-        return postRepository.findById(postId)
+        var postDto = postRepository.findById(postId)
                 .map(postMapper::toDto)
                 .orElseThrow(() -> new IllegalArgumentException("Post not found"));
+        attachLatestComments(List.of(postDto));
+        return postDto;
+    }
+
+    /**
+     * Id and author of an existing post, served from the near cache or Redis when the post is cached and otherwise
+     * by a two-column query. Unlike PostService.getPost it maps nothing and records no view.
+     */
+    public PostReference getPostReference(Long postId) {
+        var cachedPost = nearCache.getPosts(List.of(postId)).get(postId);
+        if (cachedPost != null) {
+            return new PostReference(cachedPost.getId(), cachedPost.getAuthorId());
+        }
+        return postCacheRepository.findById(postId)
+                .map(postCache -> new PostReference(postCache.getId(), postCache.getAuthorId()))
+                .or(() -> postRepository.findReferenceById(postId))
+                .orElseThrow(() -> new IllegalArgumentException("Post not found"));
+    }
+
+    public List<PostDto> getPostsByIds(List<Long> postIds) {
+        var postDtos = postRepository.findAllById(postIds).stream()
+                .map(postMapper::toDto)
+                .toList();
+        attachLatestComments(postDtos);
+        return postDtos;
+    }
+
+    private void attachLatestComments(List<PostDto> postDtos) {
+        if (postDtos.isEmpty()) {
+            return;
+        }
+
+        var postIds = postDtos.stream()
+                .map(PostDto::getId)
+                .toList();
+        var commentsByPostId = new HashMap<Long, List<CommentDto>>();
+        commentRepository.findLatestByPostIds(postIds, commentLimitPerPost).forEach(comment ->
+                commentsByPostId.computeIfAbsent(comment.getPostId(), postId -> new ArrayList<>())
+                        .add(commentMapper.toDto(comment)));
+        postDtos.forEach(postDto -> postDto.setComments(commentsByPostId.getOrDefault(postDto.getId(), List.of())));
     }
 }
@@ -1,17 +1,22 @@
 package faang.school.postservice.service.post;
 
+import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.dto.post.PostDto;
 import faang.school.postservice.kafka.EventsGenerator;
+import faang.school.postservice.mapper.CommentMapper;
 import faang.school.postservice.mapper.PostMapper;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.redis.service.AuthorCacheService;
 import faang.school.postservice.redis.service.PostCacheService;
+import faang.school.postservice.repository.CommentRepository;
 import faang.school.postservice.repository.PostRepository;
 import faang.school.postservice.validator.PostServiceValidator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 import static java.time.LocalDateTime.now;
@@ -19,8 +24,13 @@ import static java.time.LocalDateTime.now;
 @Service
 @RequiredArgsConstructor
 public class PostService {
+    @Value("${spring.data.redis.post-cache.comments-per-post:3}")
+    private int commentLimitPerPost;
+
     private final PostMapper postMapper;
+    private final CommentMapper commentMapper;
     private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
     private final PostServiceValidator<PostDto> validator;
 
     private final EventsGenerator eventsGenerator;
@@ -46,8 +56,9 @@ public class PostService {
 
         var savedPost = postRepository.save(post);
         var postDto = postMapper.toDto(savedPost);
+        attachLatestComments(List.of(postDto));
 
-        authorCacheService.saveAuthorCache(postDto.getAuthorId());
+        authorCacheService.refreshAuthorIfStale(postDto.getAuthorId());
         postCacheService.savePostCache(postDto);
         eventsGenerator.savePostCacheAndSendPostFollowersEvent(postDto);
 
@@ -77,15 +88,18 @@ public class PostService {
     public PostDto getPost(final long postId) {
         Post post = getPostByIdOrFail(postId);
         var postDto = postMapper.toDto(post);
+        attachLatestComments(List.of(postDto));
 
         eventsGenerator.generateAndSendPostViewEvent(postDto);
         return postDto;
     }
 
     public List<PostDto> getPostsByIds(List<Long> postIds) {
-        return postRepository.findAllById(postIds).stream()
+        var postDtos = postRepository.findAllById(postIds).stream()
                 .map(postMapper::toDto)
                 .toList();
+        attachLatestComments(postDtos);
+        return postDtos;
     }
 
     public List<PostDto> getFilteredPosts(final Long authorId, final Long projectId, final Boolean isPostPublished) {
@@ -98,9 +112,30 @@ public class PostService {
             result = postRepository.findByProjectIdAndPublishedAndDeletedIsFalseOrderByPublished(projectId, isPublished);
         }
 
-        return result.stream()
+        var postDtos = result.stream()
                 .map((postMapper::toDto))
                 .toList();
+        attachLatestComments(postDtos);
+        return postDtos;
+    }
+
+    /**
+     * The mapper leaves comments out, so reads attach the latest comments of the whole batch with one windowed query
+     * instead of initializing every post's comment collection.
+     */
+    private void attachLatestComments(List<PostDto> postDtos) {
+        if (postDtos.isEmpty()) {
+            return;
+        }
+
+        var postIds = postDtos.stream()
+                .map(PostDto::getId)
+                .toList();
+        var commentsByPostId = new HashMap<Long, List<CommentDto>>();
+        commentRepository.findLatestByPostIds(postIds, commentLimitPerPost).forEach(comment ->
+                commentsByPostId.computeIfAbsent(comment.getPostId(), postId -> new ArrayList<>())
+                        .add(commentMapper.toDto(comment)));
+        postDtos.forEach(postDto -> postDto.setComments(commentsByPostId.getOrDefault(postDto.getId(), List.of())));
     }
 
     private void validatePostPublishing(Post post) {
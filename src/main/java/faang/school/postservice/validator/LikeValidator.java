@@ -2,8 +2,8 @@ package faang.school.postservice.validator;
 
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.exception.DataNotFoundException;
-import faang.school.postservice.model.Comment;
-import faang.school.postservice.model.Post;
+import faang.school.postservice.exception.DuplicateLikeException;
+import faang.school.postservice.redis.service.LikeMembershipService;
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class LikeValidator {
     private final UserServiceClient userServiceClient;
+    private final LikeMembershipService likeMembershipService;
 
     public void validateUserExistence(Long userId) {
         try {
@@ -21,21 +22,15 @@ public class LikeValidator {
         }
     }
 
-    public void validateLikeToPost(Post post, Long userId) {
-        boolean userAlreadyLikedPost = post.getLikes().stream()
-                .anyMatch(existingLike -> existingLike.getUserId().equals(userId));
-
-        if (userAlreadyLikedPost) {
-            throw new IllegalArgumentException("User has already liked this post.");
+    public void validateLikeToPost(Long postId, Long userId) {
+        if (!likeMembershipService.addPostLiker(postId, userId)) {
+            throw new DuplicateLikeException("User has already liked this post.");
         }
     }
 
-    public void validateLikeToComment(Comment comment, Long userId) {
-        boolean userAlreadyLikedPost = comment.getLikes().stream()
-                .anyMatch(existingLike -> existingLike.getUserId().equals(userId));
-
-        if (userAlreadyLikedPost) {
-            throw new IllegalArgumentException("User has already liked this comment.");
+    public void validateLikeToComment(Long commentId, Long userId) {
+        if (!likeMembershipService.addCommentLiker(commentId, userId)) {
+            throw new DuplicateLikeException("User has already liked this comment.");
         }
     }
 }
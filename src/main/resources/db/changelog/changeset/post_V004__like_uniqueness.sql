@@ -0,0 +1,18 @@
+-- A user likes a post or a comment at most once. Duplicates that slipped past the old application-side check are
+-- removed first, keeping the earliest like.
+DELETE FROM likes duplicate
+USING likes original
+WHERE duplicate.comment_id IS NULL
+  AND original.comment_id IS NULL
+  AND duplicate.post_id = original.post_id
+  AND duplicate.user_id = original.user_id
+  AND duplicate.id > original.id;
+
+DELETE FROM likes duplicate
+USING likes original
+WHERE duplicate.comment_id = original.comment_id
+  AND duplicate.user_id = original.user_id
+  AND duplicate.id > original.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_likes_post_user ON likes (post_id, user_id) WHERE comment_id IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_likes_comment_user ON likes (comment_id, user_id) WHERE comment_id IS NOT NULL;
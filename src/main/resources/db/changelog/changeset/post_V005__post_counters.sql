@@ -0,0 +1,28 @@
+-- Like and comment counts kept on the rows themselves, so mapping a post or a comment no longer loads its likes and
+-- comments. Existing rows are backfilled from the likes and comment tables.
+ALTER TABLE post ADD COLUMN IF NOT EXISTS like_count integer NOT NULL DEFAULT 0;
+ALTER TABLE post ADD COLUMN IF NOT EXISTS comment_count integer NOT NULL DEFAULT 0;
+ALTER TABLE comment ADD COLUMN IF NOT EXISTS like_count integer NOT NULL DEFAULT 0;
+
+UPDATE post
+SET like_count = counted.like_count
+FROM (SELECT post_id, count(*) AS like_count
+      FROM likes
+      WHERE post_id IS NOT NULL AND comment_id IS NULL
+      GROUP BY post_id) counted
+WHERE post.id = counted.post_id;
+
+UPDATE post
+SET comment_count = counted.comment_count
+FROM (SELECT post_id, count(*) AS comment_count
+      FROM comment
+      GROUP BY post_id) counted
+WHERE post.id = counted.post_id;
+
+UPDATE comment
+SET like_count = counted.like_count
+FROM (SELECT comment_id, count(*) AS like_count
+      FROM likes
+      WHERE comment_id IS NOT NULL
+      GROUP BY comment_id) counted
+WHERE comment.id = counted.comment_id;
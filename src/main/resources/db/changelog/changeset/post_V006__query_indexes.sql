@@ -0,0 +1,12 @@
+-- Indexes matching the repository queries. Post lookups only ever read posts that are not deleted, so their indexes
+-- leave deleted rows out. The unique (post_id, user_id) and (comment_id, user_id) indexes on likes come from V004.
+CREATE INDEX IF NOT EXISTS idx_post_author_published ON post (author_id, published) WHERE deleted = false;
+CREATE INDEX IF NOT EXISTS idx_post_project_published ON post (project_id, published) WHERE deleted = false;
+CREATE INDEX IF NOT EXISTS idx_post_ready_to_publish ON post (scheduled_at) WHERE published = false AND deleted = false;
+
+-- keyset pages of likers walk the likes of one post or comment in id order
+CREATE INDEX IF NOT EXISTS idx_likes_post_keyset ON likes (post_id, id) WHERE comment_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_likes_comment_keyset ON likes (comment_id, id) WHERE comment_id IS NOT NULL;
+
+-- comments of a post, newest first for the latest-comments window
+CREATE INDEX IF NOT EXISTS idx_comment_post_id ON comment (post_id, id DESC);
@@ -0,0 +1,4 @@
+-- Plain owner indexes for the post lookups that do not filter deleted rows (findByAuthorId, findByProjectId and
+-- their WithLikes fetch joins). The partial indexes of V006 only serve queries that also filter deleted = false.
+CREATE INDEX IF NOT EXISTS idx_post_author_id ON post (author_id);
+CREATE INDEX IF NOT EXISTS idx_post_project_id ON post (project_id);
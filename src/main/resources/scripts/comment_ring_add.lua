@@ -0,0 +1,9 @@
+-- Adds comments to the capped per-post comment rings, keeping only the latest ones of every post.
+-- KEYS[i]: comment ring key of the i-th comment. ARGV[1]: comments kept per post. ARGV[2]: ring ttl in seconds.
+-- ARGV[1 + 2 * i], ARGV[2 + 2 * i]: id and serialized body of the i-th comment; the id orders the ring.
+for i, ringKey in ipairs(KEYS) do
+    redis.call('ZADD', ringKey, ARGV[1 + 2 * i], ARGV[2 + 2 * i])
+    redis.call('ZREMRANGEBYRANK', ringKey, 0, -tonumber(ARGV[1]) - 1)
+    redis.call('EXPIRE', ringKey, ARGV[2])
+end
+return #KEYS
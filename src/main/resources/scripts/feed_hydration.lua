@@ -0,0 +1,22 @@
+-- Reads every requested post hash together with the hash of its author and its latest comments in one round trip.
+-- KEYS: post cache keys. ARGV[1]: author cache key prefix. ARGV[2]: comment ring key prefix.
+-- ARGV[3]: comments per post.
+-- Returns one {postFields, authorFields, comments} triple per key, empty lists on a miss; comments are newest first.
+-- Standalone Redis only: the author and comment ring keys are built here from the post hash, not passed in KEYS, so
+-- they are not declared to Redis Cluster and may live in other slots. The author id is only known after reading the
+-- post, so declaring it would cost a second round trip; see RedisConfig.
+local result = {}
+for i, postKey in ipairs(KEYS) do
+    local post = redis.call('HGETALL', postKey)
+    local author = {}
+    local comments = {}
+    for j = 1, #post, 2 do
+        if post[j] == 'authorId' then
+            author = redis.call('HGETALL', ARGV[1] .. post[j + 1])
+        elseif post[j] == 'id' then
+            comments = redis.call('ZREVRANGE', ARGV[2] .. post[j + 1], 0, tonumber(ARGV[3]) - 1)
+        end
+    end
+    result[i] = { post, author, comments }
+end
+return result
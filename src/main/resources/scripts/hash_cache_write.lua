@@ -0,0 +1,30 @@
+-- Replaces cached entity hashes and sets their ttl in one atomic write. Kept fields that are already cached survive
+-- the replacement, so counters incremented in place are not reset to the value the entity was loaded with.
+-- KEYS: hash keys. ARGV[1]: ttl in seconds. ARGV[2]: number of kept fields k, followed by the k kept field names.
+-- Then, for every key in order, the number of fields n followed by n field/value pairs.
+local keptCount = tonumber(ARGV[2])
+local keptFields = {}
+for i = 1, keptCount do
+    keptFields[i] = ARGV[2 + i]
+end
+
+local arg = 3 + keptCount
+for _, key in ipairs(KEYS) do
+    local fieldCount = tonumber(ARGV[arg])
+    local keptValues = {}
+    if keptCount > 0 then
+        keptValues = redis.call('HMGET', key, unpack(keptFields))
+    end
+    redis.call('DEL', key)
+    if fieldCount > 0 then
+        redis.call('HSET', key, unpack(ARGV, arg + 1, arg + 2 * fieldCount))
+    end
+    for i = 1, keptCount do
+        if keptValues[i] then
+            redis.call('HSET', key, keptFields[i], keptValues[i])
+        end
+    end
+    redis.call('EXPIRE', key, ARGV[1])
+    arg = arg + 1 + 2 * fieldCount
+end
+return #KEYS
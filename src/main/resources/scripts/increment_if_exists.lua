@@ -0,0 +1,13 @@
+-- Increments a counter field of every cached post hash; missing hashes are left untouched.
+-- KEYS: post cache keys. ARGV[1]: counter field. ARGV[i + 1]: delta for KEYS[i].
+-- Returns one flag per key: 1 when the counter was incremented, 0 on a cache miss.
+local result = {}
+for i, postKey in ipairs(KEYS) do
+    if redis.call('EXISTS', postKey) == 1 then
+        redis.call('HINCRBY', postKey, ARGV[1], ARGV[i + 1])
+        result[i] = 1
+    else
+        result[i] = 0
+    end
+end
+return result
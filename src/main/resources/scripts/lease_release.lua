@@ -0,0 +1,7 @@
+-- Releases a lease only while it is still held by the caller.
+-- KEYS[1]: lease key. ARGV[1]: owner token.
+-- Returns 1 when the lease was released, 0 when it expired or belongs to someone else.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,7 @@
+-- Extends a lease only while it is still held by the caller.
+-- KEYS[1]: lease key. ARGV[1]: owner token. ARGV[2]: new ttl in milliseconds.
+-- Returns 1 when the lease was extended, 0 when it expired or belongs to someone else.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
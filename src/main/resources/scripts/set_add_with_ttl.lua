@@ -0,0 +1,6 @@
+-- Adds a member to a set and extends the set's ttl.
+-- KEYS[1]: set key. ARGV[1]: member. ARGV[2]: set ttl in seconds.
+-- Returns 1 when the member was added, 0 when it was already in the set.
+local added = redis.call('SADD', KEYS[1], ARGV[1])
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+return added
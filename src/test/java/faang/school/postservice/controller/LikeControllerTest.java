@@ -1,6 +1,9 @@
 package faang.school.postservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import faang.school.postservice.controller.like.LikeController;
+import faang.school.postservice.dto.like.LikeDto;
+import faang.school.postservice.dto.like.LikersPageDto;
 import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.service.like.LikeService;
 import faang.school.postservice.util.TestDataFactory;
@@ -10,12 +13,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,6 +38,8 @@ class LikeControllerTest {
     private LikeController likeController;
     @Mock
     private LikeService likeService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     private static final Long ID = 1L;
 
@@ -38,13 +48,39 @@ class LikeControllerTest {
         mockMvc = MockMvcBuilders.standaloneSetup(likeController).build();
     }
 
+    @Test
+    void givenGroupCommitEnabledWhenAddPostLikeThenReturnQueuedLike() throws Exception {
+        // given - precondition
+        ReflectionTestUtils.setField(likeController, "groupCommitEnabled", true);
+        var savedLike = LikeDto.builder().id(10L).postId(ID).userId(2L).build();
+        when(likeService.submitPostLike(any(LikeDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(savedLike));
+
+        // when - action
+        var asyncResult = mockMvc.perform(post("/api/v1/likes/post")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": 2, \"postId\": 1}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var response = mockMvc.perform(asyncDispatch(asyncResult));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(10L));
+        verify(likeService, never()).addPostLike(any(LikeDto.class));
+    }
+
     @Test
     void givenPostIdWhenGetUsersByPostIdThenReturnUsers() throws Exception {
         // given - precondition
         List<UserDto> userDtoList = TestDataFactory.getUserDtoList();
 
-        when(likeService.findUsersByPostId(ID))
-                .thenReturn(userDtoList);
+        doAnswer(invocation -> {
+            Consumer<List<UserDto>> pageConsumer = invocation.getArgument(1);
+            pageConsumer.accept(userDtoList.subList(0, 1));
+            pageConsumer.accept(userDtoList.subList(1, userDtoList.size()));
+            return null;
+        }).when(likeService).forEachPostLikersPage(eq(ID), any());
         // when - action
         var response = mockMvc.perform(get("/api/v1/likes/post/{postId}", ID));
 
@@ -62,8 +98,11 @@ class LikeControllerTest {
         // given - precondition
         List<UserDto> userDtoList = TestDataFactory.getUserDtoList();
 
-        when(likeService.findUsersByCommentId(ID))
-                .thenReturn(userDtoList);
+        doAnswer(invocation -> {
+            Consumer<List<UserDto>> pageConsumer = invocation.getArgument(1);
+            pageConsumer.accept(userDtoList);
+            return null;
+        }).when(likeService).forEachCommentLikersPage(eq(ID), any());
         // when - action
         var response = mockMvc.perform(get("/api/v1/likes/comment/{commentId}", ID));
 
@@ -75,4 +114,22 @@ class LikeControllerTest {
                 .andExpect(jsonPath("$[1].id").value(userDtoList.get(1).getId()))
                 .andExpect(jsonPath("$[2].id").value(userDtoList.get(2).getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenCursorWhenGetPostLikersThenReturnPage() throws Exception {
+        // given - precondition
+        List<UserDto> userDtoList = TestDataFactory.getUserDtoList();
+        when(likeService.findPostLikers(ID, 40L, 3))
+                .thenReturn(new LikersPageDto(userDtoList, 43L));
+
+        // when - action
+        var response = mockMvc.perform(get("/api/v1/likes/post/{postId}/likers", ID)
+                .param("after", "40")
+                .param("limit", "3"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", Matchers.hasSize(userDtoList.size())))
+                .andExpect(jsonPath("$.nextCursor").value(43L));
+    }
+}
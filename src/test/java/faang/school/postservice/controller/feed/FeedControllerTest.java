@@ -1,8 +1,11 @@
 package faang.school.postservice.controller.feed;
 
 import faang.school.postservice.config.context.UserContext;
+import faang.school.postservice.dto.feed.FeedPageDto;
+import faang.school.postservice.dto.feed.HeatJobDto;
+import faang.school.postservice.dto.feed.HeatJobStatus;
 import faang.school.postservice.redis.service.FeedCacheService;
-import faang.school.postservice.redis.service.FeedHeatService;
+import faang.school.postservice.redis.service.HeatJobService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,15 +16,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.List;
+import java.util.Optional;
 
 import static faang.school.postservice.util.TestDataFactory.createPostDto;
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -33,7 +35,7 @@ class FeedControllerTest {
     @Mock
     private FeedCacheService feedCacheService;
     @Mock
-    private FeedHeatService feedHeatService;
+    private HeatJobService heatJobService;
     @Mock
     private UserContext userContext;
 
@@ -45,37 +47,76 @@ class FeedControllerTest {
     }
 
     @Test
-    void givenPostIdWhenGetUserFeedWhenReturnPosts() throws Exception {
+    void givenCursorWhenGetUserFeedWhenReturnPostsAndNextCursor() throws Exception {
         // given - precondition
         var userId = 123L;
-        var postDtos = List.of(createPostDto());
+        var cursor = "cursor";
+        var feedPage = new FeedPageDto(List.of(createPostDto()), "nextCursor");
 
         when(userContext.getUserId()).thenReturn(userId);
-        when(feedCacheService.getFeedByUserId(anyLong(), eq(userId))).thenReturn(postDtos);
+        when(feedCacheService.getFeedByUserId(userId, cursor)).thenReturn(feedPage);
 
         // when - action
         var response = mockMvc.perform(get("/api/feed")
-                .param("postId", "1"));
+                .param("cursor", cursor));
 
         // then - verify the output
         response.andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(postDtos.size()))
+                .andExpect(jsonPath("$.posts.length()").value(feedPage.posts().size()))
+                .andExpect(jsonPath("$.nextCursor").value(feedPage.nextCursor()))
                 .andDo(print());
     }
 
     @Test
-    void shouldSendHeatEventsAsyncSuccessfully() throws Exception {
+    void whenStartHeatJobThenReturnAcceptedWithJobId() throws Exception {
         // given - precondition
+        var job = HeatJobDto.builder().jobId("job-id").status(HeatJobStatus.RUNNING).build();
 
-        doNothing().when(feedHeatService).sendHeatEvents();
+        when(heatJobService.startJob()).thenReturn(job);
 
         // when - action
-        var response = mockMvc.perform(get("/api/heat"));
+        var response = mockMvc.perform(post("/api/heat"));
+
+        // then - verify the output
+        response.andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value(job.jobId()))
+                .andExpect(jsonPath("$.status").value(job.status().name()))
+                .andDo(print());
+
+        verify(heatJobService, times(1)).startJob();
+    }
+
+    @Test
+    void givenJobIdWhenGetHeatJobThenReturnProgress() throws Exception {
+        // given - precondition
+        var job = HeatJobDto.builder()
+                .jobId("job-id")
+                .status(HeatJobStatus.COMPLETED)
+                .usersProcessed(1000L)
+                .eventsSent(1500L)
+                .build();
+
+        when(heatJobService.getJob(job.jobId())).thenReturn(Optional.of(job));
+
+        // when - action
+        var response = mockMvc.perform(get("/api/heat/{jobId}", job.jobId()));
 
         // then - verify the output
         response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.usersProcessed").value(job.usersProcessed()))
+                .andExpect(jsonPath("$.eventsSent").value(job.eventsSent()))
                 .andDo(print());
+    }
 
-        verify(feedHeatService, times(1)).sendHeatEvents();
+    @Test
+    void givenUnknownJobIdWhenGetHeatJobThenReturnNotFound() throws Exception {
+        // given - precondition
+        when(heatJobService.getJob("unknown")).thenReturn(Optional.empty());
+
+        // when - action
+        var response = mockMvc.perform(get("/api/heat/{jobId}", "unknown"));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+}
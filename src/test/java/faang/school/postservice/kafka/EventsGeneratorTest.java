@@ -0,0 +1,77 @@
+package faang.school.postservice.kafka;
+
+import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.user.UserDto;
+import faang.school.postservice.kafka.events.PostFollowersEvent;
+import faang.school.postservice.kafka.producer.KafkaEventProducer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static faang.school.postservice.util.TestDataFactory.createPostDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventsGeneratorTest {
+    @InjectMocks
+    private EventsGenerator eventsGenerator;
+    @Mock
+    private KafkaEventProducer kafkaEventProducer;
+    @Mock
+    private UserServiceClient userServiceClient;
+    @Captor
+    private ArgumentCaptor<PostFollowersEvent> eventCaptor;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(eventsGenerator, "followersChunkSize", 2);
+        ReflectionTestUtils.setField(eventsGenerator, "celebrityThreshold", 4);
+    }
+
+    @Test
+    void givenFollowersWhenSendPostFollowersEventThenSendOneEventPerChunk() {
+        // given - precondition
+        var postDto = createPostDto();
+        var author = UserDto.builder().followers(List.of(1L, 2L, 3L)).build();
+        when(userServiceClient.getUser(postDto.getAuthorId())).thenReturn(author);
+
+        // when - action
+        eventsGenerator.savePostCacheAndSendPostFollowersEvent(postDto);
+
+        // then - verify the output
+        verify(kafkaEventProducer, times(2)).sendPostFollowersEvent(eventCaptor.capture());
+        var events = eventCaptor.getAllValues();
+
+        assertThat(events).extracting(PostFollowersEvent::followersIds)
+                .containsExactly(List.of(1L, 2L), List.of(3L));
+        assertThat(events).extracting(PostFollowersEvent::chunkIndex).containsExactly(0, 1);
+        assertThat(events).allMatch(event -> event.chunkCount() == 2 && event.followersCount() == 3);
+    }
+
+    @Test
+    void givenCelebrityAuthorWhenSendPostFollowersEventThenSendSingleEventWithoutFollowerIds() {
+        // given - precondition
+        var postDto = createPostDto();
+        var author = UserDto.builder().followers(List.of(1L, 2L, 3L, 4L, 5L)).build();
+        when(userServiceClient.getUser(postDto.getAuthorId())).thenReturn(author);
+
+        // when - action
+        eventsGenerator.savePostCacheAndSendPostFollowersEvent(postDto);
+
+        // then - verify the output
+        verify(kafkaEventProducer, times(1)).sendPostFollowersEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().followersIds()).isEmpty();
+        assertThat(eventCaptor.getValue().followersCount()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,101 @@
+package faang.school.postservice.kafka.consumer;
+
+import faang.school.postservice.redis.service.PostCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostViewsAggregatorTest {
+    private static final int MAX_PENDING_EVENTS = 3;
+
+    @Mock
+    private PostCacheService postCacheService;
+    @Mock
+    private Acknowledgment firstAcknowledgment;
+    @Mock
+    private Acknowledgment lastAcknowledgment;
+
+    private PostViewsAggregator postViewsAggregator;
+
+    @BeforeEach
+    void setup() {
+        postViewsAggregator = new PostViewsAggregator(postCacheService, MAX_PENDING_EVENTS);
+    }
+
+    @Test
+    void givenMaxPendingEventsWhenAddViewsThenFlushDeltasAndAcknowledgeEveryBatch() {
+        // when - action
+        postViewsAggregator.addViews(Map.of(1L, 1L, 2L, 1L), 2, firstAcknowledgment);
+
+        // then - verify the output
+        verifyNoInteractions(postCacheService);
+
+        postViewsAggregator.addViews(Map.of(1L, 1L), 1, lastAcknowledgment);
+
+        verify(postCacheService, times(1)).incrementPostViews(Map.of(1L, 2L, 2L, 1L));
+        verify(firstAcknowledgment, times(1)).acknowledge();
+        verify(lastAcknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    void givenFailedFlushWhenFlushAgainThenRetryDeltasBeforeAcknowledging() {
+        // given - precondition
+        postViewsAggregator.addViews(Map.of(1L, 1L), 1, lastAcknowledgment);
+        doThrow(new RuntimeException("Redis is down"))
+                .doReturn(Map.of())
+                .when(postCacheService).incrementPostViews(anyMap());
+
+        // when - action
+        postViewsAggregator.flush();
+
+        // then - verify the output
+        verify(lastAcknowledgment, never()).acknowledge();
+
+        postViewsAggregator.flush();
+
+        verify(postCacheService, times(2)).incrementPostViews(Map.of(1L, 1L));
+        verify(lastAcknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    void givenPartiallyAppliedFlushWhenFlushAgainThenRetryOnlyFailedDeltas() {
+        // given - precondition
+        postViewsAggregator.addViews(Map.of(1L, 2L, 2L, 1L), 1, lastAcknowledgment);
+        when(postCacheService.incrementPostViews(anyMap()))
+                .thenReturn(Map.of(2L, 1L))
+                .thenReturn(Map.of());
+
+        // when - action
+        postViewsAggregator.flush();
+
+        // then - verify the output
+        verify(lastAcknowledgment, never()).acknowledge();
+
+        postViewsAggregator.flush();
+
+        verify(postCacheService, times(1)).incrementPostViews(Map.of(1L, 2L, 2L, 1L));
+        verify(postCacheService, times(1)).incrementPostViews(Map.of(2L, 1L));
+        verify(lastAcknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    void givenNoViewsWhenFlushThenDoNothing() {
+        postViewsAggregator.flush();
+
+        verifyNoInteractions(postCacheService);
+    }
+}
@@ -0,0 +1,111 @@
+package faang.school.postservice.kafka.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.kafka.events.CommentEvent;
+import faang.school.postservice.kafka.events.FeedDto;
+import faang.school.postservice.kafka.events.FeedDto.FeedEntry;
+import faang.school.postservice.kafka.events.PostFollowersEvent;
+import faang.school.postservice.kafka.events.PostViewEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static faang.school.postservice.util.TestDataFactory.PUBLISHED_AT;
+import static faang.school.postservice.util.TestDataFactory.createComment;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEventCodecTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final KafkaEventSerde kafkaEventSerde = new KafkaEventSerde("binary", objectMapper);
+
+    @Test
+    void givenPostFollowersEventWhenSerializeThenDeserializeSameEvent() {
+        // given - precondition
+        var event = new PostFollowersEvent(1L, 2L, List.of(100L, 105L, 3L, Long.MAX_VALUE), PUBLISHED_AT,
+                1, 3, 2500);
+
+        // when - action
+        var payload = kafkaEventSerde.serializer().serialize("posts", event);
+        var actualResult = kafkaEventSerde.deserializer().deserialize("posts", payload);
+
+        // then - verify the output
+        assertThat(actualResult).isEqualTo(event);
+    }
+
+    @Test
+    void givenCommentEventWhenSerializeThenNestedCommentIsKept() {
+        // given - precondition
+        var event = new CommentEvent(createComment(), 1L, 2L, "content");
+
+        // when - action
+        var payload = kafkaEventSerde.serializer().serialize("comments", event);
+        var actualResult = kafkaEventSerde.deserializer().deserialize("comments", payload);
+
+        // then - verify the output
+        assertThat(actualResult).isEqualTo(event);
+    }
+
+    @Test
+    void givenFeedHeatWhenSerializeThenDeserializeSameEntries() {
+        // given - precondition
+        var event = new FeedDto(7L, List.of(
+                new FeedEntry(30L, 1_700_000_300_000L),
+                new FeedEntry(12L, 1_700_000_000_000L)));
+
+        // when - action
+        var payload = kafkaEventSerde.serializer().serialize("heat_feed", event);
+        var actualResult = kafkaEventSerde.deserializer().deserialize("heat_feed", payload);
+
+        // then - verify the output
+        assertThat(actualResult).isEqualTo(event);
+    }
+
+    @Test
+    void givenSortedFollowerIdsWhenSerializeThenPayloadIsSmallerThanJson() {
+        // given - precondition
+        var followerIds = LongStream.rangeClosed(1_000_000, 1_010_000).boxed().toList();
+        var event = new PostFollowersEvent(1L, 2L, followerIds, PUBLISHED_AT, 0, 1, followerIds.size());
+
+        // when - action
+        var binaryPayload = kafkaEventSerde.serializer().serialize("posts", event);
+        var jsonPayload = new JsonSerializer<>(objectMapper).serialize("posts", event);
+
+        // then - verify the output
+        assertThat(binaryPayload.length).isLessThan(followerIds.size() + 64);
+        assertThat(binaryPayload.length * 5).isLessThan(jsonPayload.length);
+    }
+
+    @Test
+    void givenJsonRecordWhenDeserializeWithBinaryFormatThenFallBackToJson() {
+        // given - precondition
+        var event = new PostViewEvent(5L);
+        var jsonSerializer = new JsonSerializer<>(objectMapper);
+        var headers = new RecordHeaders();
+        var payload = jsonSerializer.serialize("post_views", headers, event);
+        var deserializer = kafkaEventSerde.deserializer();
+        deserializer.configure(Map.of("spring.json.trusted.packages", "faang.school.postservice.*"), false);
+
+        // when - action
+        var actualResult = deserializer.deserialize("post_views", headers, payload);
+
+        // then - verify the output
+        assertThat(actualResult).isEqualTo(event);
+    }
+
+    @Test
+    void givenTruncatedPayloadWhenDeserializeThenThrowException() {
+        var payload = kafkaEventSerde.serializer().serialize("posts",
+                new PostFollowersEvent(1L, 2L, List.of(3L, 4L), PUBLISHED_AT, 0, 1, 2));
+
+        assertThatThrownBy(() -> kafkaEventSerde.deserializer()
+                .deserialize("posts", Arrays.copyOf(payload, payload.length - 3)))
+                .isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,90 @@
+package faang.school.postservice.redis.cache;
+
+import faang.school.postservice.publisher.CacheInvalidationPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static faang.school.postservice.util.TestDataFactory.createAuthorCache;
+import static faang.school.postservice.util.TestDataFactory.createPostCache;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class NearCacheTest {
+    @Mock
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
+    private SimpleMeterRegistry meterRegistry;
+    private NearCache nearCache;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        nearCache = new NearCache(true, 100, 60_000, cacheInvalidationPublisher, meterRegistry);
+    }
+
+    @Test
+    void givenCachedPostWhenEvictPostThenDropLocallyAndBroadcast() {
+        // given - precondition
+        var postCache = createPostCache();
+        nearCache.putPost(postCache);
+
+        // when - action
+        nearCache.evictPost(postCache.getId());
+
+        // then - verify the output
+        assertThat(nearCache.getPosts(List.of(postCache.getId()))).isEmpty();
+        verify(cacheInvalidationPublisher, times(1)).publish("post:" + postCache.getId());
+    }
+
+    @Test
+    void givenInvalidationMessageWhenOnInvalidationThenDropAuthor() {
+        // given - precondition
+        var authorCache = createAuthorCache();
+        nearCache.putAuthor(authorCache);
+
+        // when - action
+        nearCache.onInvalidation("author:" + authorCache.getId());
+
+        // then - verify the output
+        assertThat(nearCache.getAuthor(authorCache.getId())).isNull();
+        verifyNoInteractions(cacheInvalidationPublisher);
+    }
+
+    @Test
+    void givenLookupsWhenGetPostsThenRecordHitsAndMisses() {
+        // given - precondition
+        var postCache = createPostCache();
+        nearCache.putPost(postCache);
+
+        // when - action
+        nearCache.getPosts(List.of(postCache.getId(), 999L));
+
+        // then - verify the output
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "near-cache-posts").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "near-cache-posts").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void givenDisabledNearCacheWhenPutPostThenNothingIsCached() {
+        // given - precondition
+        var disabledNearCache = new NearCache(false, 100, 60_000, cacheInvalidationPublisher,
+                new SimpleMeterRegistry());
+        var postCache = createPostCache();
+
+        // when - action
+        disabledNearCache.putPost(postCache);
+
+        // then - verify the output
+        assertThat(disabledNearCache.getPosts(List.of(postCache.getId()))).isEmpty();
+    }
+}
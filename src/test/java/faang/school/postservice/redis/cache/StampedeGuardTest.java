@@ -0,0 +1,197 @@
+package faang.school.postservice.redis.cache;
+
+import faang.school.postservice.redis.repository.HashCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StampedeGuardTest {
+    private static final String LEASE_KEY_PREFIX = "lease:";
+    private static final String KEY_PREFIX = "post:";
+
+    @InjectMocks
+    private StampedeGuard stampedeGuard;
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private RedisScript<Long> leaseReleaseScript;
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(stampedeGuard, "leaseKeyPrefix", LEASE_KEY_PREFIX);
+        ReflectionTestUtils.setField(stampedeGuard, "leaseMillis", 1000L);
+        ReflectionTestUtils.setField(stampedeGuard, "retryMillis", 1L);
+        ReflectionTestUtils.setField(stampedeGuard, "beta", 1.0);
+        ReflectionTestUtils.setField(stampedeGuard, "taskExecutor", (Executor) Runnable::run);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenLeasesAcquiredWhenLoadAllThenLoadOnceAndReleaseLeases() {
+        // given - precondition
+        when(stringRedisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(true, true));
+        Function<List<Long>, Map<Long, String>> cacheReader = mock(Function.class);
+        Function<List<Long>, Map<Long, String>> loader = ids -> Map.of(1L, "first", 2L, "second");
+
+        // when - action
+        var actualResult = stampedeGuard.loadAll(KEY_PREFIX, List.of(1L, 2L), cacheReader, loader);
+
+        // then - verify the output
+        assertThat(actualResult).containsOnly(Map.entry(1L, "first"), Map.entry(2L, "second"));
+
+        verifyNoInteractions(cacheReader);
+        verify(stringRedisTemplate, times(1))
+                .execute(eq(leaseReleaseScript), eq(List.of(LEASE_KEY_PREFIX + KEY_PREFIX + 1L)), any(Object[].class));
+        verify(stringRedisTemplate, times(1))
+                .execute(eq(leaseReleaseScript), eq(List.of(LEASE_KEY_PREFIX + KEY_PREFIX + 2L)), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenLeaseHeldElsewhereWhenLoadAllThenWaitForCacheInsteadOfLoading() {
+        // given - precondition
+        when(stringRedisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(false));
+        var reads = new AtomicInteger();
+        Function<List<Long>, Map<Long, String>> cacheReader = ids -> reads.incrementAndGet() < 3
+                ? Map.of()
+                : Map.of(1L, "loaded elsewhere");
+        Function<List<Long>, Map<Long, String>> loader = mock(Function.class);
+
+        // when - action
+        var actualResult = stampedeGuard.loadAll(KEY_PREFIX, List.of(1L), cacheReader, loader);
+
+        // then - verify the output
+        assertThat(actualResult).containsOnly(Map.entry(1L, "loaded elsewhere"));
+        assertThat(reads.get()).isEqualTo(3);
+
+        verifyNoInteractions(loader);
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), any(List.class), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenLeaseHolderNeverWritesWhenLoadAllThenLoadAfterLeaseExpires() {
+        // given - precondition
+        ReflectionTestUtils.setField(stampedeGuard, "leaseMillis", 20L);
+        when(stringRedisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(false));
+        Function<List<Long>, Map<Long, String>> cacheReader = ids -> Map.of();
+        Function<List<Long>, Map<Long, String>> loader = ids -> Map.of(1L, "loaded here");
+
+        // when - action
+        var actualResult = stampedeGuard.loadAll(KEY_PREFIX, List.of(1L), cacheReader, loader);
+
+        // then - verify the output
+        assertThat(actualResult).containsOnly(Map.entry(1L, "loaded here"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenConcurrentMissesOnSameKeyWhenLoadAllThenLoadOnce() throws Exception {
+        // given - precondition
+        lenient().when(stringRedisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(true));
+        var loads = new AtomicInteger();
+        var loaderStarted = new CountDownLatch(1);
+        var releaseLoader = new CountDownLatch(1);
+        Function<List<Long>, Map<Long, String>> loader = ids -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            try {
+                releaseLoader.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Map.of(1L, "value");
+        };
+
+        var leader = CompletableFuture.supplyAsync(
+                () -> stampedeGuard.loadAll(KEY_PREFIX, List.of(1L), ids -> Map.of(), loader));
+        loaderStarted.await();
+        var followerThread = new AtomicReference<Thread>();
+        var follower = CompletableFuture.supplyAsync(() -> {
+            followerThread.set(Thread.currentThread());
+            return stampedeGuard.loadAll(KEY_PREFIX, List.of(1L), ids -> Map.of(), loader);
+        });
+        while (followerThread.get() == null || followerThread.get().getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+
+        // when - action
+        releaseLoader.countDown();
+
+        // then - verify the output
+        assertThat(leader.get()).containsOnly(Map.entry(1L, "value"));
+        assertThat(follower.get()).containsOnly(Map.entry(1L, "value"));
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void givenEntryPastExpiryWhenShouldRefreshEarlyThenTrue() {
+        // given - precondition
+        var fields = Map.of(
+                HashCacheRepository.EXPIRES_AT_FIELD, String.valueOf(System.currentTimeMillis() - 1),
+                HashCacheRepository.DELTA_FIELD, "10");
+
+        // when - action
+        // then - verify the output
+        assertThat(stampedeGuard.shouldRefreshEarly(fields)).isTrue();
+    }
+
+    @Test
+    void givenFreshEntryOrNoMetadataWhenShouldRefreshEarlyThenFalse() {
+        // given - precondition
+        var fields = Map.of(
+                HashCacheRepository.EXPIRES_AT_FIELD, String.valueOf(System.currentTimeMillis() + 3_600_000),
+                HashCacheRepository.DELTA_FIELD, "0");
+
+        // when - action
+        // then - verify the output
+        assertThat(stampedeGuard.shouldRefreshEarly(fields)).isFalse();
+        assertThat(stampedeGuard.shouldRefreshEarly(Map.of("id", "1"))).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenLeaseHeldElsewhereWhenRefreshAsyncThenSkipRefresh() {
+        // given - precondition
+        when(stringRedisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(false, true));
+        Consumer<List<Long>> refresher = mock(Consumer.class);
+
+        // when - action
+        stampedeGuard.refreshAsync(KEY_PREFIX, List.of(1L, 2L), refresher);
+
+        // then - verify the output
+        verify(refresher, times(1)).accept(List.of(2L));
+        verify(stringRedisTemplate, times(1)).execute(any(RedisScript.class), any(List.class), any(Object[].class));
+        verify(stringRedisTemplate, times(1))
+                .execute(eq(leaseReleaseScript), eq(List.of(LEASE_KEY_PREFIX + KEY_PREFIX + 2L)), any(Object[].class));
+    }
+}
@@ -0,0 +1,72 @@
+package faang.school.postservice.redis.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static faang.school.postservice.util.TestDataFactory.POST_CACHE_LIKES_FIELD;
+import static faang.school.postservice.util.TestDataFactory.POST_CACHE_VIEWS_FIELD;
+import static faang.school.postservice.util.TestDataFactory.createAuthorCache;
+import static faang.school.postservice.util.TestDataFactory.createPostCache;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostCacheCodecTest {
+    private final PostCacheCodec postCacheCodec = new PostCacheCodec(POST_CACHE_LIKES_FIELD, POST_CACHE_VIEWS_FIELD);
+    private final AuthorCacheCodec authorCacheCodec = new AuthorCacheCodec();
+
+    @Test
+    void whenEncodePostCacheThenWriteOnlyPlainFields() {
+        // given - precondition
+        var postCache = createPostCache();
+
+        // when - action
+        var actualResult = postCacheCodec.encode(postCache);
+
+        // then - verify the output
+        assertThat(actualResult).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "id", "123",
+                "content", "Content",
+                "authorId", "12",
+                POST_CACHE_LIKES_FIELD, "8",
+                POST_CACHE_VIEWS_FIELD, "100"));
+    }
+
+    @Test
+    void whenDecodeEncodedPostCacheThenReturnSamePostWithoutComments() {
+        // given - precondition
+        var postCache = createPostCache();
+
+        // when - action
+        var actualResult = postCacheCodec.decode(postCacheCodec.encode(postCache));
+
+        // then - verify the output
+        assertThat(actualResult)
+                .usingRecursiveComparison()
+                .ignoringFields("comments")
+                .isEqualTo(postCache);
+        assertThat(actualResult.getComments()).isNull();
+    }
+
+    @Test
+    void givenMissingCountersWhenDecodePostCacheThenLeaveThemNull() {
+        // when - action
+        var actualResult = postCacheCodec.decode(Map.of("id", "1", "content", "Content"));
+
+        // then - verify the output
+        assertThat(actualResult.getId()).isEqualTo(1L);
+        assertThat(actualResult.getLikes()).isNull();
+        assertThat(actualResult.getViews()).isNull();
+    }
+
+    @Test
+    void whenDecodeEncodedAuthorCacheThenReturnSameAuthor() {
+        // given - precondition
+        var authorCache = createAuthorCache();
+
+        // when - action
+        var actualResult = authorCacheCodec.decode(authorCacheCodec.encode(authorCache));
+
+        // then - verify the output
+        assertThat(actualResult).isEqualTo(authorCache);
+    }
+}
@@ -13,7 +13,7 @@ class PostCacheMapperTest {
     void givenPostDtoWhenToPostCacheThenReturn() {
         // given - precondition
         var postDto = TestDataFactory.createPostDto();
-        var expectedResult = TestDataFactory.createPostCache();
+        var expectedResult = TestDataFactory.createPostCacheWithoutComments();
 
         // when - action
         var actualResult = mapper.toPostCache(postDto);
@@ -0,0 +1,111 @@
+package faang.school.postservice.redis.repository;
+
+import faang.school.postservice.redis.codec.PostCacheCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Map;
+
+import static faang.school.postservice.util.TestDataFactory.POST_CACHE_KEY_PREFIX;
+import static faang.school.postservice.util.TestDataFactory.POST_CACHE_LIKES_FIELD;
+import static faang.school.postservice.util.TestDataFactory.POST_CACHE_VIEWS_FIELD;
+import static faang.school.postservice.util.TestDataFactory.createPostCache;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostCacheRepositoryTest {
+    private static final long TTL_SECONDS = 86400L;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private RedisScript<Long> hashCacheWriteScript;
+
+    private PostCacheRepository postCacheRepository;
+
+    @BeforeEach
+    void init() {
+        postCacheRepository = new PostCacheRepository(stringRedisTemplate, hashCacheWriteScript,
+                new PostCacheCodec(POST_CACHE_LIKES_FIELD, POST_CACHE_VIEWS_FIELD), POST_CACHE_KEY_PREFIX, TTL_SECONDS);
+    }
+
+    @Test
+    void whenSaveThenWriteFieldsAndTtlInOneScriptCallKeepingCounters() {
+        // given - precondition
+        var postCache = createPostCache();
+
+        // when - action
+        postCacheRepository.save(postCache);
+
+        // then - verify the output
+        verify(stringRedisTemplate, times(1)).execute(eq(hashCacheWriteScript), eq(List.of(POST_CACHE_KEY_PREFIX + 123L)),
+                eq(String.valueOf(TTL_SECONDS)), eq("2"), eq(POST_CACHE_LIKES_FIELD), eq(POST_CACHE_VIEWS_FIELD),
+                eq("7"),
+                eq("id"), eq("123"),
+                eq("content"), eq("Content"),
+                eq("authorId"), eq("12"),
+                eq(POST_CACHE_LIKES_FIELD), eq("8"),
+                eq(POST_CACHE_VIEWS_FIELD), eq("100"),
+                eq(HashCacheRepository.EXPIRES_AT_FIELD), anyString(),
+                eq(HashCacheRepository.DELTA_FIELD), eq("0"));
+    }
+
+    @Test
+    void whenSaveAllWithLoadTimeThenRecordExpiryAndDelta() {
+        // given - precondition
+        var postCache = createPostCache();
+        var savedAt = System.currentTimeMillis();
+
+        // when - action
+        postCacheRepository.saveAll(List.of(postCache), 42L);
+
+        // then - verify the output
+        verify(stringRedisTemplate, times(1)).execute(eq(hashCacheWriteScript), eq(List.of(POST_CACHE_KEY_PREFIX + 123L)),
+                eq(String.valueOf(TTL_SECONDS)), eq("2"), anyString(), anyString(), eq("7"),
+                anyString(), anyString(), anyString(), anyString(), anyString(), anyString(),
+                anyString(), anyString(), anyString(), anyString(),
+                eq(HashCacheRepository.EXPIRES_AT_FIELD),
+                argThat((String expiresAt) -> Long.parseLong(expiresAt) >= savedAt + TTL_SECONDS * 1000),
+                eq(HashCacheRepository.DELTA_FIELD), eq("42"));
+    }
+
+    @Test
+    void givenNoEntitiesWhenSaveAllThenSkipRedis() {
+        // when - action
+        postCacheRepository.saveAll(List.of());
+
+        // then - verify the output
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenFindAllByIdThenDecodeCachedHashesAndSkipMisses() {
+        // given - precondition
+        when(stringRedisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(Map.of("id", "1", "content", "Content"), Map.of()));
+
+        // when - action
+        var actualResult = postCacheRepository.findAllById(List.of(1L, 2L));
+
+        // then - verify the output
+        assertThat(actualResult).hasSize(1);
+        assertThat(actualResult.get(0).getId()).isEqualTo(1L);
+        assertThat(actualResult.get(0).getContent()).isEqualTo("Content");
+    }
+}
@@ -2,26 +2,48 @@ package faang.school.postservice.redis.service;
 
 import faang.school.postservice.client.UserServiceClient;
 import faang.school.postservice.dto.user.UserDto;
+import faang.school.postservice.redis.cache.NearCache;
+import faang.school.postservice.redis.cache.StampedeGuard;
 import faang.school.postservice.redis.mapper.AuthorCacheMapper;
 import faang.school.postservice.redis.model.AuthorCache;
 import faang.school.postservice.redis.repository.AuthorCacheRedisRepository;
 import faang.school.postservice.util.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+import static faang.school.postservice.util.TestDataFactory.AUTHOR_CACHE_KEY_PREFIX;
 import static faang.school.postservice.util.TestDataFactory.POST_AUTHOR_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AuthorCacheServiceTest {
+    private static final long TTL_SECONDS = 86400L;
+    private static final long REFRESH_AFTER_SECONDS = 3600L;
+
     @InjectMocks
     private AuthorCacheService authorCacheService;
     @Mock
@@ -30,6 +52,18 @@ class AuthorCacheServiceTest {
     private AuthorCacheMapper authorCacheMapper;
     @Mock
     private UserServiceClient userServiceClient;
+    @Mock
+    private NearCache nearCache;
+    @Mock
+    private StampedeGuard stampedeGuard;
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(authorCacheService, "authorCacheKeyPrefix", AUTHOR_CACHE_KEY_PREFIX);
+        ReflectionTestUtils.setField(authorCacheService, "ttlSeconds", TTL_SECONDS);
+        ReflectionTestUtils.setField(authorCacheService, "refreshAfterSeconds", REFRESH_AFTER_SECONDS);
+    }
+
     @Test
     void givenUsersWhenSaveAllAuthorsInCacheThenAllUsersSavedInCache() throws ExecutionException, InterruptedException {
         var allUsers = TestDataFactory.createUserDtoList();
@@ -50,18 +84,75 @@ class AuthorCacheServiceTest {
     }
 
     @Test
-    void givenPostAuthorIdWhenSaveAuthorCacheThenAuthorIsSaved() {
+    void givenCachedAndMissedAuthorsWhenGetAuthorsThenLoadOnlyMissesInOneCall() {
+        // given - precondition
+        var nearCachedAuthor = new AuthorCache(1L, "near", "near@email.com");
+        var redisAuthor = new AuthorCache(2L, "redis", "redis@email.com");
+        var userDto = TestDataFactory.createUserDto();
+        var loadedAuthor = TestDataFactory.createAuthorCache();
+
+        lenient().when(nearCache.getAuthor(1L)).thenReturn(nearCachedAuthor);
+        when(repository.findAllById(List.of(2L, 12345L))).thenReturn(List.of(redisAuthor));
+        when(stampedeGuard.<AuthorCache>loadAll(eq(AUTHOR_CACHE_KEY_PREFIX), eq(List.of(12345L)), any(), any()))
+                .thenAnswer(invocation -> invocation.<Function<List<Long>, Map<Long, AuthorCache>>>getArgument(3)
+                        .apply(List.of(12345L)));
+        when(userServiceClient.getUsersByIds(List.of(12345L))).thenReturn(List.of(userDto));
+        when(authorCacheMapper.toAuthorCache(userDto)).thenReturn(loadedAuthor);
+
+        // when - action
+        var actualResult = authorCacheService.getAuthors(List.of(1L, 2L, 12345L, 2L));
+
+        // then - verify the output
+        assertThat(actualResult).containsOnly(
+                Map.entry(1L, nearCachedAuthor),
+                Map.entry(2L, redisAuthor),
+                Map.entry(12345L, loadedAuthor));
+
+        verify(userServiceClient, times(1)).getUsersByIds(List.of(12345L));
+        verify(repository, times(1)).saveAll(eq(List.of(loadedAuthor)), anyLong());
+        verify(nearCache, times(1)).putAuthor(redisAuthor);
+        verify(nearCache, times(1)).evictAuthor(12345L);
+    }
+
+    @Test
+    void givenFreshAuthorWhenRefreshAuthorIfStaleThenSkipUserService() {
+        // given - precondition
+        mockRefreshRunsInline();
+        when(repository.findExpiresAt(POST_AUTHOR_ID))
+                .thenReturn(Optional.of(System.currentTimeMillis() + Duration.ofSeconds(TTL_SECONDS).toMillis()));
+
+        // when - action
+        authorCacheService.refreshAuthorIfStale(POST_AUTHOR_ID);
+
+        // then - verify the output
+        verifyNoInteractions(userServiceClient);
+        verify(repository, never()).saveAll(anyList(), anyLong());
+    }
+
+    @Test
+    void givenStaleAuthorWhenRefreshAuthorIfStaleThenReloadIt() {
+        // given - precondition
         var userDto = TestDataFactory.createUserDto();
         var authorCache = TestDataFactory.createAuthorCache();
 
-        when(userServiceClient.getUser(POST_AUTHOR_ID)).thenReturn(userDto);
+        mockRefreshRunsInline();
+        when(repository.findExpiresAt(POST_AUTHOR_ID)).thenReturn(Optional.of(System.currentTimeMillis()
+                + Duration.ofSeconds(TTL_SECONDS - REFRESH_AFTER_SECONDS - 1).toMillis()));
+        when(userServiceClient.getUsersByIds(List.of(POST_AUTHOR_ID))).thenReturn(List.of(userDto));
         when(authorCacheMapper.toAuthorCache(userDto)).thenReturn(authorCache);
 
         // when - action
-        authorCacheService.saveAuthorCache(POST_AUTHOR_ID);
+        authorCacheService.refreshAuthorIfStale(POST_AUTHOR_ID);
 
         // then - verify the output
-        verify(authorCacheMapper, times(1)).toAuthorCache(userDto);
-        verify(repository, times(1)).save(authorCache);
+        verify(repository, times(1)).saveAll(eq(List.of(authorCache)), anyLong());
+        verify(nearCache, times(1)).evictAuthor(authorCache.getId());
+    }
+
+    private void mockRefreshRunsInline() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<List<Long>>>getArgument(2).accept(invocation.getArgument(1));
+            return null;
+        }).when(stampedeGuard).refreshAsync(eq(AUTHOR_CACHE_KEY_PREFIX), anyList(), any());
     }
-}
\ No newline at end of file
+}
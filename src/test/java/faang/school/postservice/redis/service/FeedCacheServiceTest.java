@@ -1,8 +1,9 @@
 package faang.school.postservice.redis.service;
 
-import faang.school.postservice.dto.post.PostDto;
-import faang.school.postservice.redis.mapper.PostCacheMapper;
-import faang.school.postservice.redis.model.PostCache;
+import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.feed.FeedCursor;
+import faang.school.postservice.dto.user.UserDto;
+import faang.school.postservice.kafka.events.PostFollowersEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,37 +12,53 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+import static faang.school.postservice.util.TestDataFactory.CELEBRITIES_KEY;
+import static faang.school.postservice.util.TestDataFactory.CELEBRITY_ID;
+import static faang.school.postservice.util.TestDataFactory.CELEBRITY_THRESHOLD;
+import static faang.school.postservice.util.TestDataFactory.FAN_OUT_CHUNK_SIZE;
+import static faang.school.postservice.util.TestDataFactory.FAN_OUT_MARKER_PREFIX;
 import static faang.school.postservice.util.TestDataFactory.FEED_PREFIX;
 import static faang.school.postservice.util.TestDataFactory.FOLLOWER_ID;
 import static faang.school.postservice.util.TestDataFactory.FOLLOWER_IDS;
-import static faang.school.postservice.util.TestDataFactory.FOLLOWER_POST_IDS;
 import static faang.school.postservice.util.TestDataFactory.ID;
 import static faang.school.postservice.util.TestDataFactory.MAX_FEED_SIZE;
-import static faang.school.postservice.util.TestDataFactory.MOCK_FEED_SIZE;
 import static faang.school.postservice.util.TestDataFactory.POSTS_PER_PAGE;
 import static faang.school.postservice.util.TestDataFactory.PUBLISHED_AT;
+import static faang.school.postservice.util.TestDataFactory.TIMELINE_PREFIX;
 import static faang.school.postservice.util.TestDataFactory.creatFeedDto;
-import static faang.school.postservice.util.TestDataFactory.createPostCache;
 import static faang.school.postservice.util.TestDataFactory.createPostDto;
 import static faang.school.postservice.util.TestDataFactory.EXPECTED_SCORE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class FeedCacheServiceTest {
+    private static final String FOLLOWEES_PREFIX = "followees:";
+
     @InjectMocks
     private FeedCacheService feedCacheService;
     @Mock
@@ -49,91 +66,300 @@ class FeedCacheServiceTest {
     @Mock
     private ZSetOperations<String, Object> zSetOperations;
     @Mock
-    private PostCacheService postCacheService;
+    private FeedHydrationService feedHydrationService;
     @Mock
-    private PostCacheMapper postCacheMapper;
-    @Captor
-    ArgumentCaptor<PostDto> postDtoCaptor;
+    private SetOperations<String, Object> setOperations;
+    @Mock
+    private UserServiceClient userServiceClient;
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
     @Captor
-    ArgumentCaptor<Double> scoreCaptor;
+    ArgumentCaptor<Set<TypedTuple<Object>>> tuplesCaptor;
 
     @BeforeEach
     public void setup() {
         ReflectionTestUtils.setField(feedCacheService, "maxFeedSize", MAX_FEED_SIZE);
         ReflectionTestUtils.setField(feedCacheService, "feedPrefix", FEED_PREFIX);
         ReflectionTestUtils.setField(feedCacheService, "postsPerPage", POSTS_PER_PAGE);
+        ReflectionTestUtils.setField(feedCacheService, "fanOutChunkSize", FAN_OUT_CHUNK_SIZE);
+
+        ReflectionTestUtils.setField(feedCacheService, "celebrityThreshold", CELEBRITY_THRESHOLD);
+        ReflectionTestUtils.setField(feedCacheService, "timelinePrefix", TIMELINE_PREFIX);
+        ReflectionTestUtils.setField(feedCacheService, "celebritiesKey", CELEBRITIES_KEY);
+        ReflectionTestUtils.setField(feedCacheService, "fanOutMarkerPrefix", FAN_OUT_MARKER_PREFIX);
+        ReflectionTestUtils.setField(feedCacheService, "fanOutMarkerTtlSeconds", 60L);
+
+        ReflectionTestUtils.setField(feedCacheService, "followeesPrefix", FOLLOWEES_PREFIX);
+        ReflectionTestUtils.setField(feedCacheService, "followeesTtlSeconds", 60L);
 
-        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
     }
 
     @Test
-    void shouldAddPostToFollowersFeedAndTrimFeedWhenFeedSizeExceeded() {
+    @SuppressWarnings("unchecked")
+    void shouldAddPostToFollowersFeedAndTrimFeedInPipelinedChunks() {
         // given - precondition
-        when(zSetOperations.zCard(anyString())).thenReturn(MOCK_FEED_SIZE);
+        mockFanOutMarker(false);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenAnswer(invocation -> {
+                    SessionCallback<Object> callback = invocation.getArgument(0);
+                    callback.execute(redisTemplate);
+                    return List.of();
+                });
 
         // when - action
-        feedCacheService.distributePostToFollowers(ID, FOLLOWER_IDS, PUBLISHED_AT);
+        feedCacheService.distributePostToFollowers(createPostFollowersEvent(ID, FOLLOWER_IDS, FOLLOWER_IDS.size()));
 
         // then - verify the output
         FOLLOWER_IDS.forEach(followerId -> {
             verify(zSetOperations, times(1))
                     .add(eq(FEED_PREFIX + followerId), eq(ID), eq(EXPECTED_SCORE));
-        });
-
-        FOLLOWER_IDS.forEach(followerId -> {
             verify(zSetOperations, times(1))
-                    .zCard(eq(FEED_PREFIX + followerId));
+                    .removeRange(eq(FEED_PREFIX + followerId), eq(0L), eq(-(MAX_FEED_SIZE + 1L)));
         });
 
-        verify(redisTemplate, times(FOLLOWER_IDS.size() * 2)).opsForZSet();
-        verifyNoMoreInteractions(redisTemplate);
+        var expectedChunks = (FOLLOWER_IDS.size() + FAN_OUT_CHUNK_SIZE - 1) / FAN_OUT_CHUNK_SIZE;
+        verify(redisTemplate, times(expectedChunks)).executePipelined(any(SessionCallback.class));
+        verify(valueOperations, times(1)).set(eq(FAN_OUT_MARKER_PREFIX + ID + ":0"), eq(1), any(Duration.class));
+        verify(setOperations, times(1)).remove(CELEBRITIES_KEY, ID);
+        verifyNoMoreInteractions(zSetOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWritePostOnceToAuthorTimelineWhenAuthorIsCelebrity() {
+        // given - precondition
+        mockFanOutMarker(false);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenAnswer(invocation -> {
+                    SessionCallback<Object> callback = invocation.getArgument(0);
+                    callback.execute(redisTemplate);
+                    return List.of();
+                });
+
+        // when - action
+        feedCacheService.distributePostToFollowers(
+                createPostFollowersEvent(CELEBRITY_ID, List.of(), CELEBRITY_THRESHOLD + 1));
+
+        // then - verify the output
+        verify(zSetOperations, times(1)).add(eq(TIMELINE_PREFIX + CELEBRITY_ID), eq(ID), eq(EXPECTED_SCORE));
+        verify(zSetOperations, times(1))
+                .removeRange(eq(TIMELINE_PREFIX + CELEBRITY_ID), eq(0L), eq(-(MAX_FEED_SIZE + 1L)));
+        verify(setOperations, times(1)).add(CELEBRITIES_KEY, CELEBRITY_ID);
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
         verifyNoMoreInteractions(zSetOperations);
     }
 
     @Test
-    void givenUserIdAndPostIdWhenGetFeedByUserIdThenReturnFeed() {
+    void givenReplayedChunkWhenDistributePostToFollowersThenSkipFanOut() {
+        // given - precondition
+        mockFanOutMarker(true);
+
+        // when - action
+        feedCacheService.distributePostToFollowers(createPostFollowersEvent(ID, FOLLOWER_IDS, FOLLOWER_IDS.size()));
+
+        // then - verify the output
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+        verifyNoInteractions(zSetOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenFailedFanOutWhenDistributePostToFollowersThenLeaveChunkUnmarkedForRetry() {
+        // given - precondition
+        mockFanOutMarker(false);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenThrow(new IllegalStateException());
+
+        // when - action
+        assertThatThrownBy(() -> feedCacheService.distributePostToFollowers(
+                createPostFollowersEvent(ID, FOLLOWER_IDS, FOLLOWER_IDS.size())))
+                .isInstanceOf(IllegalStateException.class);
+
+        // then - verify the output
+        verifyNoInteractions(valueOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenCursorWhenGetFeedByUserIdThenReturnPostsOlderThanCursorInOneCall() {
         // given - precondition
-        long rank = 12L;
-        var postCacheList = List.of(createPostCache());
         var expectedPostDto = createPostDto();
+        var cursor = new FeedCursor(30.0, ID).encode();
 
-        when(postCacheService.getPostCacheByIds(anyList())).thenReturn(postCacheList);
-        when(postCacheMapper.toDto(any(PostCache.class))).thenReturn(expectedPostDto);
-        when(zSetOperations.rank(eq(FEED_PREFIX + ID), eq(ID))).thenReturn(rank);
-        when(zSetOperations.range(eq(FEED_PREFIX + ID), eq(rank + 1), eq(rank + POSTS_PER_PAGE)))
-                .thenReturn(FOLLOWER_POST_IDS);
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(Set.of(), true), List.of(tuples(ID, 30.0), tuples(22L, 20.0, 33L, 10.0)));
+        when(feedHydrationService.hydrate(List.of(22L, 33L))).thenReturn(List.of(expectedPostDto));
 
         // when - action
-        var actualResult = feedCacheService.getFeedByUserId(ID, ID);
+        var actualResult = feedCacheService.getFeedByUserId(ID, cursor);
 
         // then - verify the output
-        assertThat(actualResult).isNotNull();
-        assertThat(actualResult.get(0)).usingRecursiveComparison()
+        assertThat(actualResult.posts()).hasSize(1);
+        assertThat(actualResult.posts().get(0)).usingRecursiveComparison()
                 .isEqualTo(expectedPostDto);
+        assertThat(actualResult.nextCursor()).isNull();
 
-        verify(postCacheService, times(1)).getPostCacheByIds(anyList());
-        verify(postCacheMapper, times(1)).toDto(any(PostCache.class));
-        verify(zSetOperations, times(1)).rank(eq(FEED_PREFIX + ID), eq(ID));
-        verify(zSetOperations, times(1))
-                .range(eq(FEED_PREFIX + ID), eq(rank + 1), eq(rank + POSTS_PER_PAGE));
+        verify(redisTemplate, times(2)).executePipelined(any(SessionCallback.class));
+        verify(feedHydrationService, times(1)).hydrate(List.of(22L, 33L));
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenFullPageWhenGetFeedByUserIdThenReturnCursorOfLastPost() {
+        // given - precondition
+        ReflectionTestUtils.setField(feedCacheService, "postsPerPage", 2);
+
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(Set.of(), true), List.of(tuples(22L, 20.0, 33L, 10.0)));
+        when(feedHydrationService.hydrate(anyList())).thenReturn(List.of());
+
+        // when - action
+        var actualResult = feedCacheService.getFeedByUserId(ID, null);
+
+        // then - verify the output
+        assertThat(FeedCursor.decode(actualResult.nextCursor())).isEqualTo(new FeedCursor(10.0, 33L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenMorePostsAtCursorScoreThanPageWhenGetFeedByUserIdThenPageThroughThemWithoutGapsOrRepeats() {
+        // given - precondition
+        ReflectionTestUtils.setField(feedCacheService, "postsPerPage", 2);
+        var cursor = new FeedCursor(30.0, 50L).encode();
+
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(Set.of(), true),
+                        List.of(tuples(20L, 30.0, 30L, 30.0, 40L, 30.0, 50L, 30.0, 60L, 30.0), tuples(10L, 20.0)),
+                        List.of(Set.of(), true),
+                        List.of(tuples(20L, 30.0, 30L, 30.0, 40L, 30.0, 50L, 30.0, 60L, 30.0), tuples(10L, 20.0)));
+        when(feedHydrationService.hydrate(anyList())).thenReturn(List.of());
+
+        // when - action
+        var firstPage = feedCacheService.getFeedByUserId(ID, cursor);
+        feedCacheService.getFeedByUserId(ID, firstPage.nextCursor());
+
+        // then - verify the output
+        assertThat(FeedCursor.decode(firstPage.nextCursor())).isEqualTo(new FeedCursor(30.0, 30L));
+        verify(feedHydrationService, times(1)).hydrate(List.of(40L, 30L));
+        verify(feedHydrationService, times(1)).hydrate(List.of(20L, 10L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenCursorWhenGetFeedByUserIdThenReadBelowCursorScoreAndCursorScoreSeparately() {
+        // given - precondition
+        var cursor = new FeedCursor(30.0, ID);
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(Set.of(), true))
+                .thenAnswer(invocation -> {
+                    SessionCallback<Object> callback = invocation.getArgument(0);
+                    callback.execute(redisTemplate);
+                    return List.of(Set.of(), Set.of());
+                });
+        when(feedHydrationService.hydrate(anyList())).thenReturn(List.of());
+
+        // when - action
+        feedCacheService.getFeedByUserId(ID, cursor.encode());
+
+        // then - verify the output
+        verify(zSetOperations, times(1)).rangeByScoreWithScores(FEED_PREFIX + ID, 30.0, 30.0);
+        verify(zSetOperations, times(1)).reverseRangeByScoreWithScores(
+                FEED_PREFIX + ID, Double.NEGATIVE_INFINITY, Math.nextDown(30.0), 0, POSTS_PER_PAGE);
+    }
+
+    @Test
+    void givenMalformedCursorWhenGetFeedByUserIdThenThrowException() {
+        assertThatThrownBy(() -> feedCacheService.getFeedByUserId(ID, "not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid feed cursor");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenFollowedCelebrityWhenGetFeedByUserIdThenMergeTimelineNewestFirst() {
+        // given - precondition
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(Set.of(CELEBRITY_ID), true),
+                        List.of(tuples(44L, 40.0, 22L, 20.0), tuples(55L, 50.0, 33L, 30.0, 22L, 20.0)));
+        when(feedHydrationService.hydrate(anyList())).thenReturn(List.of());
+
+        // when - action
+        feedCacheService.getFeedByUserId(ID, null);
+
+        // then - verify the output
+        verify(feedHydrationService, times(1)).hydrate(List.of(55L, 44L, 33L, 22L));
+        verify(redisTemplate, times(2)).executePipelined(any(SessionCallback.class));
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenExpiredFolloweesWhenGetFeedByUserIdThenCacheThemAndIntersectInRedis() {
+        // given - precondition
+        var user = UserDto.builder()
+                .id(ID)
+                .followees(List.of(CELEBRITY_ID, 888L))
+                .build();
+
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(Set.of(), false), List.of(),
+                        List.of(tuples(44L, 40.0), tuples(55L, 50.0)));
+        when(userServiceClient.getUser(ID)).thenReturn(user);
+        when(setOperations.intersect(FOLLOWEES_PREFIX + ID, CELEBRITIES_KEY)).thenReturn(Set.of(CELEBRITY_ID));
+        when(feedHydrationService.hydrate(anyList())).thenReturn(List.of());
+
+        // when - action
+        feedCacheService.getFeedByUserId(ID, null);
+
+        // then - verify the output
+        verify(userServiceClient, times(1)).getUser(ID);
+        verify(feedHydrationService, times(1)).hydrate(List.of(55L, 44L));
+        verify(redisTemplate, times(3)).executePipelined(any(SessionCallback.class));
     }
 
     @Test
-    void shouldSaveFeedWhenSaveUserFeedHeat() {
+    @SuppressWarnings("unchecked")
+    void shouldSaveFeedPostIdsWhenSaveUserFeedHeat() {
         // given - precondition
         var feedDto = creatFeedDto();
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenAnswer(invocation -> {
+                    SessionCallback<Object> callback = invocation.getArgument(0);
+                    callback.execute(redisTemplate);
+                    return List.of();
+                });
 
         // when - action
         feedCacheService.saveUserFeedHeat(feedDto);
 
         // then - verify the output
-        verify(redisTemplate.opsForZSet(), times(feedDto.posts().size()))
-                .add(eq(FEED_PREFIX + FOLLOWER_ID), postDtoCaptor.capture(), scoreCaptor.capture());
+        verify(zSetOperations, times(1)).add(eq(FEED_PREFIX + FOLLOWER_ID), tuplesCaptor.capture());
+        verify(zSetOperations, times(1))
+                .removeRange(eq(FEED_PREFIX + FOLLOWER_ID), eq(0L), eq(-(MAX_FEED_SIZE + 1L)));
 
-        List<PostDto> capturedPosts = postDtoCaptor.getAllValues();
-        List<Double> capturedScores = scoreCaptor.getAllValues();
+        var capturedTuple = tuplesCaptor.getValue().iterator().next();
+        assertThat(capturedTuple.getValue()).isEqualTo(feedDto.entries().get(0).postId());
+        assertThat(capturedTuple.getScore()).isEqualTo(EXPECTED_SCORE);
+    }
+
+    private void mockFanOutMarker(boolean distributed) {
+        when(redisTemplate.hasKey(FAN_OUT_MARKER_PREFIX + ID + ":0")).thenReturn(distributed);
+    }
+
+    private static PostFollowersEvent createPostFollowersEvent(Long authorId, List<Long> followerIds,
+                                                               int followersCount) {
+        return new PostFollowersEvent(authorId, ID, followerIds, PUBLISHED_AT, 0, 1, followersCount);
+    }
 
-        assertThat(capturedPosts).containsExactlyElementsOf(feedDto.posts());
-        assertThat(capturedScores).allMatch(score -> score.equals(EXPECTED_SCORE));
+    private static Set<TypedTuple<Object>> tuples(Object... postIdsAndScores) {
+        var tuples = new LinkedHashSet<TypedTuple<Object>>();
+        for (int i = 0; i < postIdsAndScores.length; i += 2) {
+            tuples.add(new DefaultTypedTuple<>(postIdsAndScores[i], (Double) postIdsAndScores[i + 1]));
+        }
+        return tuples;
     }
-}
\ No newline at end of file
+}
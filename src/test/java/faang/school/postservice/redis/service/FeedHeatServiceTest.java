@@ -1,33 +1,54 @@
 package faang.school.postservice.redis.service;
 
 import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.kafka.events.FeedDto;
+import faang.school.postservice.kafka.events.FeedDto.FeedEntry;
 import faang.school.postservice.kafka.producer.KafkaEventProducer;
-import faang.school.postservice.service.post.PostService;
-import faang.school.postservice.util.TestDataFactory;
+import faang.school.postservice.service.post.PostRetrievalService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import static faang.school.postservice.util.TestDataFactory.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import static faang.school.postservice.util.TestDataFactory.EXPECTED_SCORE;
 import static faang.school.postservice.util.TestDataFactory.MAX_POSTS_IN_HEAT_FEED;
 import static faang.school.postservice.util.TestDataFactory.createPostDto;
-import static faang.school.postservice.util.TestDataFactory.createUserDtoList;
+import static faang.school.postservice.util.TestDataFactory.createUserDto;
 import static java.util.List.of;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyList;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class FeedHeatServiceTest {
+    private static final String CHECKPOINT_KEY = "heat:checkpoint";
+    private static final int USERS_PAGE_SIZE = 2;
+    private static final int QUERY_CHUNK_SIZE = 1000;
+    private static final long BLOGGER_ID = 888L;
+    private static final long BLOGGERS_CACHE_SIZE = 100L;
+    private static final long POST_ID = createPostDto().getId();
+
     @InjectMocks
     private FeedHeatService feedHeatService;
     @Mock
@@ -37,56 +58,156 @@ class FeedHeatServiceTest {
     @Mock
     private UserServiceClient userServiceClient;
     @Mock
-    private PostService postService;
+    private PostRetrievalService postRetrievalService;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+    @Mock
+    private FeedHeatService.HeatProgress progress;
 
     @BeforeEach
     void init(){
         ReflectionTestUtils.setField(feedHeatService, "maxPostsInHeatFeed", MAX_POSTS_IN_HEAT_FEED);
+        ReflectionTestUtils.setField(feedHeatService, "usersPageSize", USERS_PAGE_SIZE);
+        ReflectionTestUtils.setField(feedHeatService, "batchSize", 1);
+        ReflectionTestUtils.setField(feedHeatService, "checkpointKey", CHECKPOINT_KEY);
+        ReflectionTestUtils.setField(feedHeatService, "queryChunkSize", QUERY_CHUNK_SIZE);
+        ReflectionTestUtils.setField(feedHeatService, "bloggersCacheSize", BLOGGERS_CACHE_SIZE);
+        ReflectionTestUtils.setField(feedHeatService, "heatExecutor", (Executor) Runnable::run);
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(kafkaEventProducer.sendFeedHeatEvent(any(FeedDto.class))).thenReturn(completedFuture(null));
+        lenient().when(kafkaEventProducer.sendPostHeatEvent(any(PostDto.class))).thenReturn(completedFuture(null));
     }
 
     @Test
     void whenSendHeatEventsThenAuthorCachesSavedAndPostHeatEventsSent() {
         // given - precondition
-        mockUserServiceAndCacheBehavior();
-        mockPostServiceBehavior();
-        mockKafkaProducerBehavior();
+        var user = createUserDto();
+        when(userServiceClient.getUsersPage(0L, USERS_PAGE_SIZE)).thenReturn(of(user));
+        when(userServiceClient.getUsersPage(user.getId(), USERS_PAGE_SIZE)).thenReturn(of());
+        when(authorCacheService.saveAllAuthorsInCache(anyList())).thenReturn(completedFuture(null));
+        when(userServiceClient.getUsersByIds(of(BLOGGER_ID))).thenReturn(of(createBlogger()));
+        when(postRetrievalService.getPostsByIds(of(POST_ID))).thenReturn(of(createPostDto()));
 
         // when - action
-        feedHeatService.sendHeatEvents();
+        feedHeatService.sendHeatEvents(progress);
 
         // then - verify the output
-        verifyUserServiceInteractions();
-        verifyPostServiceInteractions();
-        verifyKafkaProducerInteractions();
+        verify(progress, times(1)).onPage(1, 2L);
+        verify(authorCacheService, times(1)).saveAllAuthorsInCache(of(user));
+        verify(kafkaEventProducer, times(1))
+                .sendFeedHeatEvent(new FeedDto(user.getId(), of(new FeedEntry(POST_ID, (long) EXPECTED_SCORE))));
+        verify(kafkaEventProducer, times(1)).sendPostHeatEvent(createPostDto());
+        verify(valueOperations, times(1)).set(CHECKPOINT_KEY, user.getId());
+        verify(redisTemplate, times(1)).delete(CHECKPOINT_KEY);
     }
 
-    private void mockUserServiceAndCacheBehavior() {
-        var userDtoList = createUserDtoList();
-        when(userServiceClient.getAllUsers()).thenReturn(userDtoList);
+    @Test
+    void givenFollowersSharingBloggerWhenSendHeatEventsThenLoadBloggerPostsOnce() {
+        // given - precondition
+        var firstFollower = UserDto.builder().id(1L).followees(of(BLOGGER_ID)).build();
+        var secondFollower = UserDto.builder().id(2L).followees(of(BLOGGER_ID)).build();
+        var thirdFollower = UserDto.builder().id(3L).followees(of(BLOGGER_ID)).build();
+
+        when(userServiceClient.getUsersPage(0L, USERS_PAGE_SIZE)).thenReturn(of(firstFollower, secondFollower));
+        when(userServiceClient.getUsersPage(2L, USERS_PAGE_SIZE)).thenReturn(of(thirdFollower));
+        when(userServiceClient.getUsersPage(3L, USERS_PAGE_SIZE)).thenReturn(of());
         when(authorCacheService.saveAllAuthorsInCache(anyList())).thenReturn(completedFuture(null));
-        when(userServiceClient.getUsersByIds(anyList())).thenReturn(userDtoList);
+        when(userServiceClient.getUsersByIds(of(BLOGGER_ID))).thenReturn(of(createBlogger()));
+        when(postRetrievalService.getPostsByIds(of(POST_ID))).thenReturn(of(createPostDto()));
+
+        // when - action
+        feedHeatService.sendHeatEvents(progress);
+
+        // then - verify the output
+        verify(userServiceClient, times(1)).getUsersByIds(anyList());
+        verify(postRetrievalService, times(1)).getPostsByIds(anyList());
+        verify(kafkaEventProducer, times(3)).sendFeedHeatEvent(any(FeedDto.class));
+        verify(kafkaEventProducer, times(1)).sendPostHeatEvent(createPostDto());
+        verify(progress, times(1)).onPage(2, 3L);
+        verify(progress, times(1)).onPage(1, 1L);
     }
 
-    private void mockPostServiceBehavior() {
-        var postDto = createPostDto();
-        when(postService.getPostsByIds(anyList())).thenReturn(of(postDto));
+    @Test
+    void givenBloggersWithInterleavedPostsWhenSendHeatEventsThenFeedKeepsNewestPosts() {
+        // given - precondition
+        ReflectionTestUtils.setField(feedHeatService, "maxPostsInHeatFeed", 2);
+        var otherBloggerId = BLOGGER_ID + 1;
+        var follower = UserDto.builder().id(1L).followees(of(BLOGGER_ID, otherBloggerId)).build();
+        var now = LocalDateTime.now();
+        var posts = of(createPost(11L, now.minusDays(1)), createPost(12L, now.minusDays(3)),
+                createPost(21L, now.minusDays(2)), createPost(22L, now.minusDays(4)));
+
+        when(userServiceClient.getUsersPage(0L, USERS_PAGE_SIZE)).thenReturn(of(follower));
+        when(userServiceClient.getUsersPage(1L, USERS_PAGE_SIZE)).thenReturn(of());
+        when(authorCacheService.saveAllAuthorsInCache(anyList())).thenReturn(completedFuture(null));
+        when(userServiceClient.getUsersByIds(of(BLOGGER_ID, otherBloggerId))).thenReturn(of(
+                UserDto.builder().id(BLOGGER_ID).posts(of(11L, 12L)).build(),
+                UserDto.builder().id(otherBloggerId).posts(of(21L, 22L)).build()));
+        when(postRetrievalService.getPostsByIds(anyList())).thenReturn(posts);
+
+        // when - action
+        feedHeatService.sendHeatEvents(progress);
+
+        // then - verify the output
+        verify(kafkaEventProducer, times(1)).sendFeedHeatEvent(new FeedDto(follower.getId(), of(
+                new FeedEntry(11L, toEpochMilli(now.minusDays(1))),
+                new FeedEntry(21L, toEpochMilli(now.minusDays(2))))));
     }
 
-    private void mockKafkaProducerBehavior() {
-        doNothing().when(kafkaEventProducer).sendFeedHeatEvent(any(FeedDto.class));
+    @Test
+    void givenFailedSendWhenSendHeatEventsThenCheckpointNotMoved() {
+        // given - precondition
+        var user = createUserDto();
+        when(userServiceClient.getUsersPage(0L, USERS_PAGE_SIZE)).thenReturn(of(user));
+        when(authorCacheService.saveAllAuthorsInCache(anyList())).thenReturn(completedFuture(null));
+        when(userServiceClient.getUsersByIds(of(BLOGGER_ID))).thenReturn(of(createBlogger()));
+        when(postRetrievalService.getPostsByIds(of(POST_ID))).thenReturn(of(createPostDto()));
+        when(kafkaEventProducer.sendFeedHeatEvent(any(FeedDto.class)))
+                .thenReturn(failedFuture(new RuntimeException("Failed to send feed heat event")));
+
+        // when - action
+        assertThrows(CompletionException.class, () -> feedHeatService.sendHeatEvents(progress));
+
+        // then - verify the output
+        verifyNoInteractions(progress);
+        verify(valueOperations, never()).set(eq(CHECKPOINT_KEY), any());
+        verify(redisTemplate, never()).delete(CHECKPOINT_KEY);
     }
 
-    private void verifyUserServiceInteractions() {
-        verify(userServiceClient, times(1)).getAllUsers();
-        verify(authorCacheService, times(1)).saveAllAuthorsInCache(anyList());
-        verify(userServiceClient, times(1)).getUsersByIds(anyList());
+    @Test
+    void givenCheckpointWhenSendHeatEventsThenResumeAfterCheckpointedUser() {
+        // given - precondition
+        when(valueOperations.get(CHECKPOINT_KEY)).thenReturn(100);
+        when(userServiceClient.getUsersPage(100L, USERS_PAGE_SIZE)).thenReturn(of());
+
+        // when - action
+        feedHeatService.sendHeatEvents(progress);
+
+        // then - verify the output
+        verifyNoInteractions(progress);
+        verify(userServiceClient, never()).getUsersPage(0L, USERS_PAGE_SIZE);
+        verify(kafkaEventProducer, never()).sendFeedHeatEvent(any(FeedDto.class));
+        verify(redisTemplate, times(1)).delete(CHECKPOINT_KEY);
+    }
+
+    private static UserDto createBlogger() {
+        return UserDto.builder()
+                .id(BLOGGER_ID)
+                .posts(of(POST_ID))
+                .build();
     }
 
-    private void verifyPostServiceInteractions() {
-        verify(postService, times(createUserDtoList().size())).getPostsByIds(anyList());
+    private static PostDto createPost(Long postId, LocalDateTime publishedAt) {
+        return PostDto.builder()
+                .id(postId)
+                .publishedAt(publishedAt)
+                .build();
     }
 
-    private void verifyKafkaProducerInteractions() {
-        verify(kafkaEventProducer).sendFeedHeatEvent(any(FeedDto.class));
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,206 @@
+package faang.school.postservice.redis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.dto.user.AuthorDto;
+import faang.school.postservice.redis.cache.NearCache;
+import faang.school.postservice.redis.cache.StampedeGuard;
+import faang.school.postservice.redis.codec.AuthorCacheCodec;
+import faang.school.postservice.redis.codec.PostCacheCodec;
+import faang.school.postservice.redis.mapper.AuthorCacheMapper;
+import faang.school.postservice.redis.mapper.PostCacheMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static faang.school.postservice.util.TestDataFactory.AUTHOR_CACHE_KEY_PREFIX;
+import static faang.school.postservice.util.TestDataFactory.COMMENT_LIMIT_PER_POST;
+import static faang.school.postservice.util.TestDataFactory.POST_CACHE_KEY_PREFIX;
+import static faang.school.postservice.util.TestDataFactory.createAuthorCache;
+import static faang.school.postservice.util.TestDataFactory.createComment;
+import static faang.school.postservice.util.TestDataFactory.createPostCache;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FeedHydrationServiceTest {
+    private static final String COMMENT_RING_KEY_PREFIX = "post-comments:";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private FeedHydrationService feedHydrationService;
+    @Mock
+    @SuppressWarnings("rawtypes")
+    private RedisScript<List> feedHydrationScript;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private PostCacheCodec postCacheCodec;
+    @Mock
+    private AuthorCacheCodec authorCacheCodec;
+    @Mock
+    private PostCacheService postCacheService;
+    @Mock
+    private AuthorCacheService authorCacheService;
+    @Mock
+    private PostCacheMapper postCacheMapper;
+    @Mock
+    private AuthorCacheMapper authorCacheMapper;
+    @Mock
+    private NearCache nearCache;
+    @Mock
+    private StampedeGuard stampedeGuard;
+
+    private final PostDto cachedPost = PostDto.builder().id(1L).authorId(12345L).build();
+    private final PostDto missedPost = PostDto.builder().id(2L).authorId(12345L).build();
+    private final AuthorDto author = AuthorDto.builder().id(12345L).username("testUserName").build();
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(feedHydrationService, "postCacheKeyPrefix", POST_CACHE_KEY_PREFIX);
+        ReflectionTestUtils.setField(feedHydrationService, "authorCacheKeyPrefix", AUTHOR_CACHE_KEY_PREFIX);
+        ReflectionTestUtils.setField(feedHydrationService, "commentRingKeyPrefix", COMMENT_RING_KEY_PREFIX);
+        ReflectionTestUtils.setField(feedHydrationService, "commentLimitPerPost", COMMENT_LIMIT_PER_POST);
+        ReflectionTestUtils.setField(feedHydrationService, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void givenCachedPostsWhenHydrateThenReadPostsAuthorsAndCommentsInOneScriptCall() throws Exception {
+        // given - precondition
+        var postCache = createPostCache();
+        var authorCache = createAuthorCache();
+        var comment = createComment();
+
+        mockScriptResult(List.of(List.of(fields("id", "1"), fields("id", "12345"),
+                List.of(objectMapper.writeValueAsBytes(comment)))));
+        when(postCacheCodec.decode(Map.of("id", "1"))).thenReturn(postCache);
+        when(authorCacheCodec.decode(Map.of("id", "12345"))).thenReturn(authorCache);
+        when(postCacheMapper.toDto(postCache)).thenReturn(cachedPost);
+        when(authorCacheMapper.toAuthorDto(authorCache)).thenReturn(author);
+
+        // when - action
+        var actualResult = feedHydrationService.hydrate(List.of(1L));
+
+        // then - verify the output
+        assertThat(actualResult).containsExactly(cachedPost);
+        assertThat(actualResult.get(0).getAuthor()).isEqualTo(author);
+        assertThat(postCache.getComments()).containsExactly(comment);
+
+        verifyNoInteractions(postCacheService);
+        verifyNoInteractions(authorCacheService);
+        verify(nearCache, times(1)).putPost(postCache);
+        verify(nearCache, times(1)).putAuthor(authorCache);
+    }
+
+    @Test
+    void givenPostAndAuthorInNearCacheWhenHydrateThenSkipRedis() {
+        // given - precondition
+        var postCache = createPostCache();
+        var authorCache = createAuthorCache();
+
+        when(nearCache.getPosts(List.of(1L))).thenReturn(Map.of(1L, postCache));
+        when(nearCache.getAuthor(postCache.getAuthorId())).thenReturn(authorCache);
+        when(postCacheMapper.toDto(postCache)).thenReturn(cachedPost);
+        when(authorCacheMapper.toAuthorDto(authorCache)).thenReturn(author);
+
+        // when - action
+        var actualResult = feedHydrationService.hydrate(List.of(1L));
+
+        // then - verify the output
+        assertThat(actualResult).containsExactly(cachedPost);
+        assertThat(actualResult.get(0).getAuthor()).isEqualTo(author);
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void givenMissedPostWhenHydrateThenLoadFromDatabaseAndWriteBack() {
+        // given - precondition
+        var postCache = createPostCache();
+        var authorCache = createAuthorCache();
+
+        mockScriptResult(List.of(
+                List.of(fields("id", "1"), fields(), fields()),
+                List.of(fields(), fields(), fields())));
+        when(postCacheCodec.decode(Map.of("id", "1"))).thenReturn(postCache);
+        when(postCacheMapper.toDto(postCache)).thenReturn(cachedPost);
+        when(postCacheService.loadPosts(List.of(2L))).thenReturn(Map.of(2L, missedPost));
+        when(authorCacheService.getAuthors(List.of(12345L))).thenReturn(Map.of(12345L, authorCache));
+        when(authorCacheMapper.toAuthorDto(authorCache)).thenReturn(author);
+        when(stampedeGuard.<PostDto>loadAll(eq(POST_CACHE_KEY_PREFIX), eq(List.of(2L)), any(), any()))
+                .thenAnswer(invocation -> invocation.<Function<List<Long>, Map<Long, PostDto>>>getArgument(3)
+                        .apply(List.of(2L)));
+
+        // when - action
+        var actualResult = feedHydrationService.hydrate(List.of(1L, 2L));
+
+        // then - verify the output
+        assertThat(actualResult).containsExactly(cachedPost, missedPost);
+        assertThat(missedPost.getAuthor()).isEqualTo(author);
+        assertThat(cachedPost.getAuthor()).isEqualTo(author);
+
+        verify(postCacheService, times(1)).loadPosts(List.of(2L));
+    }
+
+    @Test
+    void givenPostDueForEarlyRefreshWhenHydrateThenServeItAndRefreshInBackground() {
+        // given - precondition
+        var postCache = createPostCache();
+
+        mockScriptResult(List.of(List.of(fields("id", "1"), fields(), fields())));
+        when(stampedeGuard.shouldRefreshEarly(Map.of("id", "1"))).thenReturn(true);
+        when(postCacheCodec.decode(Map.of("id", "1"))).thenReturn(postCache);
+        when(postCacheMapper.toDto(postCache)).thenReturn(cachedPost);
+
+        // when - action
+        var actualResult = feedHydrationService.hydrate(List.of(1L));
+
+        // then - verify the output
+        assertThat(actualResult).containsExactly(cachedPost);
+
+        verify(stampedeGuard, times(1)).refreshAsync(eq(POST_CACHE_KEY_PREFIX), eq(List.of(1L)), any());
+        verify(stampedeGuard, never()).loadAll(any(), any(), any(), any());
+        verify(postCacheService, never()).loadPosts(any());
+    }
+
+    @Test
+    void givenNoPostIdsWhenHydrateThenReturnEmptyList() {
+        assertThat(feedHydrationService.hydrate(List.of())).isEmpty();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockScriptResult(List<?> result) {
+        when(redisTemplate.execute(eq(feedHydrationScript), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), eq(AUTHOR_CACHE_KEY_PREFIX), eq(COMMENT_RING_KEY_PREFIX),
+                eq(String.valueOf(COMMENT_LIMIT_PER_POST))))
+                .thenReturn(result);
+    }
+
+    private static List<byte[]> fields(String... fieldsAndValues) {
+        return Arrays.stream(fieldsAndValues)
+                .map(String::getBytes)
+                .toList();
+    }
+}
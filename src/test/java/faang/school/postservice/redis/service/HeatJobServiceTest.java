@@ -0,0 +1,157 @@
+package faang.school.postservice.redis.service;
+
+import faang.school.postservice.dto.feed.HeatJobStatus;
+import faang.school.postservice.exception.HeatJobConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HeatJobServiceTest {
+    private static final String LEASE_KEY = "heat:lease";
+    private static final String JOB_KEY_PREFIX = "heat:job:";
+    private static final long LEASE_TTL_SECONDS = 300L;
+
+    @InjectMocks
+    private HeatJobService heatJobService;
+    @Mock
+    private FeedHeatService feedHeatService;
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private RedisScript<Long> leaseRenewScript;
+    @Mock
+    private RedisScript<Long> leaseReleaseScript;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(heatJobService, "leaseKey", LEASE_KEY);
+        ReflectionTestUtils.setField(heatJobService, "leaseTtlSeconds", LEASE_TTL_SECONDS);
+        ReflectionTestUtils.setField(heatJobService, "jobKeyPrefix", JOB_KEY_PREFIX);
+        ReflectionTestUtils.setField(heatJobService, "jobTtlSeconds", 86400L);
+        ReflectionTestUtils.setField(heatJobService, "leaseRenewScript", leaseRenewScript);
+        ReflectionTestUtils.setField(heatJobService, "leaseReleaseScript", leaseReleaseScript);
+        ReflectionTestUtils.setField(heatJobService, "heatJobExecutor", (Executor) Runnable::run);
+
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void whenStartJobThenAcquireLeaseRunHeatAndReleaseLease() {
+        // given - precondition
+        when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), eq(Duration.ofSeconds(LEASE_TTL_SECONDS))))
+                .thenReturn(true);
+        lenient().when(stringRedisTemplate.execute(eq(leaseRenewScript), eq(List.of(LEASE_KEY)), any(Object[].class)))
+                .thenReturn(1L);
+        when(hashOperations.entries(anyString())).thenReturn(Map.of(
+                "status", "COMPLETED",
+                "usersProcessed", "2",
+                "eventsSent", "3",
+                "startedAt", "1000",
+                "finishedAt", "2000"));
+        doAnswer(invocation -> {
+            invocation.<FeedHeatService.HeatProgress>getArgument(0).onPage(2, 3L);
+            return null;
+        }).when(feedHeatService).sendHeatEvents(any());
+
+        // when - action
+        var actualResult = heatJobService.startJob();
+
+        // then - verify the output
+        assertThat(actualResult.status()).isEqualTo(HeatJobStatus.COMPLETED);
+        assertThat(actualResult.usersProcessed()).isEqualTo(2L);
+        assertThat(actualResult.eventsSent()).isEqualTo(3L);
+        assertThat(actualResult.eventsPerSecond()).isEqualTo(3.0);
+
+        var jobKey = JOB_KEY_PREFIX + actualResult.jobId();
+        verify(hashOperations, times(1)).increment(jobKey, "usersProcessed", 2L);
+        verify(hashOperations, times(1)).increment(jobKey, "eventsSent", 3L);
+        verify(stringRedisTemplate, times(1)).execute(leaseReleaseScript, List.of(LEASE_KEY), actualResult.jobId());
+    }
+
+    @Test
+    void givenLeaseHeldWhenStartJobThenThrowConflict() {
+        // given - precondition
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+        // when - action
+        // then - verify the output
+        assertThatThrownBy(() -> heatJobService.startJob())
+                .isInstanceOf(HeatJobConflictException.class)
+                .hasMessageContaining("already running");
+
+        verify(valueOperations, never()).get(LEASE_KEY);
+        verifyNoInteractions(feedHeatService);
+    }
+
+    @Test
+    void givenLostLeaseWhenHeatReportsProgressThenJobFails() {
+        // given - precondition
+        when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(valueOperations.setIfAbsent(eq(LEASE_KEY), anyString(), any(Duration.class))).thenReturn(true);
+        lenient().when(stringRedisTemplate.execute(eq(leaseRenewScript), eq(List.of(LEASE_KEY)), any(Object[].class)))
+                .thenReturn(0L);
+        when(hashOperations.entries(anyString())).thenReturn(Map.of(
+                "status", "FAILED",
+                "startedAt", "1000",
+                "finishedAt", "2000"));
+        doAnswer(invocation -> {
+            invocation.<FeedHeatService.HeatProgress>getArgument(0).onPage(2, 3L);
+            invocation.<FeedHeatService.HeatProgress>getArgument(0).onPage(2, 3L);
+            return null;
+        }).when(feedHeatService).sendHeatEvents(any());
+
+        // when - action
+        var actualResult = heatJobService.startJob();
+
+        // then - verify the output
+        assertThat(actualResult.status()).isEqualTo(HeatJobStatus.FAILED);
+        verify(hashOperations, times(1)).increment(anyString(), eq("usersProcessed"), eq(2L));
+        verify(hashOperations, times(2)).putAll(anyString(), anyMap());
+    }
+
+    @Test
+    void givenNoRunningJobWhenGetCurrentJobThenReturnEmpty() {
+        // given - precondition
+        when(valueOperations.get(LEASE_KEY)).thenReturn(null);
+
+        // when - action
+        var actualResult = heatJobService.getCurrentJob();
+
+        // then - verify the output
+        assertThat(actualResult).isEmpty();
+        verify(stringRedisTemplate, never()).opsForHash();
+    }
+}
@@ -0,0 +1,80 @@
+package faang.school.postservice.redis.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LikeMembershipServiceTest {
+    private static final String POST_KEY_PREFIX = "post-likers:";
+    private static final String COMMENT_KEY_PREFIX = "comment-likers:";
+    private static final long TTL_SECONDS = 604800L;
+
+    @InjectMocks
+    private LikeMembershipService likeMembershipService;
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private RedisScript<Long> setAddWithTtlScript;
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(likeMembershipService, "postKeyPrefix", POST_KEY_PREFIX);
+        ReflectionTestUtils.setField(likeMembershipService, "commentKeyPrefix", COMMENT_KEY_PREFIX);
+        ReflectionTestUtils.setField(likeMembershipService, "ttlSeconds", TTL_SECONDS);
+    }
+
+    @Test
+    void givenNewLikerWhenAddPostLikerThenReturnTrue() {
+        // given - precondition
+        when(stringRedisTemplate.execute(setAddWithTtlScript, List.of(POST_KEY_PREFIX + 1L), "7",
+                String.valueOf(TTL_SECONDS))).thenReturn(1L);
+
+        // when - action
+        var actualResult = likeMembershipService.addPostLiker(1L, 7L);
+
+        // then - verify the output
+        assertThat(actualResult).isTrue();
+    }
+
+    @Test
+    void givenExistingLikerWhenAddCommentLikerThenReturnFalse() {
+        // given - precondition
+        when(stringRedisTemplate.execute(setAddWithTtlScript, List.of(COMMENT_KEY_PREFIX + 2L), "7",
+                String.valueOf(TTL_SECONDS))).thenReturn(0L);
+
+        // when - action
+        var actualResult = likeMembershipService.addCommentLiker(2L, 7L);
+
+        // then - verify the output
+        assertThat(actualResult).isFalse();
+    }
+
+    @Test
+    void whenRemovePostLikerThenRemoveFromSet() {
+        // given - precondition
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+
+        // when - action
+        likeMembershipService.removePostLiker(1L, 7L);
+
+        // then - verify the output
+        verify(setOperations, times(1)).remove(POST_KEY_PREFIX + 1L, "7");
+    }
+}
@@ -1,5 +1,10 @@
 package faang.school.postservice.redis.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import faang.school.postservice.dto.comment.CommentDto;
+import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.redis.cache.NearCache;
+import faang.school.postservice.redis.cache.StampedeGuard;
 import faang.school.postservice.redis.mapper.PostCacheMapper;
 import faang.school.postservice.redis.model.PostCache;
 import faang.school.postservice.redis.repository.PostCacheRepository;
@@ -10,11 +15,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import static faang.school.postservice.util.TestDataFactory.COMMENT_LIMIT_PER_POST;
 import static faang.school.postservice.util.TestDataFactory.ID;
@@ -24,21 +34,25 @@ import static faang.school.postservice.util.TestDataFactory.POST_CACHE_VIEWS_FIE
 import static faang.school.postservice.util.TestDataFactory.createComment;
 import static faang.school.postservice.util.TestDataFactory.createPostCache;
 import static faang.school.postservice.util.TestDataFactory.createPostDto;
-import static java.util.Optional.of;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class PostCacheServiceTest {
+    private static final String COMMENT_RING_KEY_PREFIX = "post-comments:";
+    private static final long POST_CACHE_TTL_SECONDS = 86400L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private PostCacheService postCacheService;
     @Mock
@@ -50,88 +64,198 @@ class PostCacheServiceTest {
     @Mock
     private PostRetrievalService postRetrievalService;
     @Mock
-    private HashOperations<String, Object, Object> hashOperations;
+    private NearCache nearCache;
+    @Mock
+    private StampedeGuard stampedeGuard;
+    @Mock
+    @SuppressWarnings("rawtypes")
+    private RedisScript<List> incrementIfExistsScript;
+    @Mock
+    private RedisScript<Long> commentRingScript;
+
     @BeforeEach
     void setup(){
         ReflectionTestUtils.setField(postCacheService, "postCacheViewsField", POST_CACHE_VIEWS_FIELD);
         ReflectionTestUtils.setField(postCacheService, "postCacheLikesField", POST_CACHE_LIKES_FIELD);
         ReflectionTestUtils.setField(postCacheService, "postCacheKeyPrefix", POST_CACHE_KEY_PREFIX);
         ReflectionTestUtils.setField(postCacheService, "commentLimitPerPost", COMMENT_LIMIT_PER_POST);
-
-        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        ReflectionTestUtils.setField(postCacheService, "commentRingKeyPrefix", COMMENT_RING_KEY_PREFIX);
+        ReflectionTestUtils.setField(postCacheService, "postCacheTtlSeconds", POST_CACHE_TTL_SECONDS);
+        ReflectionTestUtils.setField(postCacheService, "incrementIfExistsScript", incrementIfExistsScript);
+        ReflectionTestUtils.setField(postCacheService, "commentRingScript", commentRingScript);
+        ReflectionTestUtils.setField(postCacheService, "objectMapper", objectMapper);
     }
 
     @Test
     void shouldIncrementPostViewsInCache() {
         // given - precondition
-        when(postCacheRepository.existsById(ID)).thenReturn(true);
-        when(hashOperations.increment(anyString(), anyString(), eq(1L))).thenReturn(1L);
+        mockIncrementIfExists(List.of(1L));
 
         // when - action
-        postCacheService.incrementConcurrentPostViews(ID);
+        postCacheService.incrementPostViews(Map.of(ID, 1L));
 
         // then - verify the output
-        verify(postCacheRepository, times(1)).existsById(ID);
-        verify(hashOperations, times(1)).increment(anyString(), anyString(), eq(1L));
+        verify(redisTemplate, times(1)).execute(eq(incrementIfExistsScript), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of(POST_CACHE_KEY_PREFIX + ID)),
+                eq(POST_CACHE_VIEWS_FIELD), eq("1"));
+        verifyNoInteractions(nearCache);
 
         verifyNoInteractions(postRetrievalService);
         verifyNoInteractions(postCacheMapper);
-        verifyNoMoreInteractions(postCacheRepository);
+        verifyNoInteractions(postCacheRepository);
     }
 
     @Test
-    void shouldIncrementPostLikesInCache() {
+    void givenViewDeltasWhenIncrementPostViewsThenIncrementCachedAndCacheMissedPosts() {
         // given - precondition
-        when(postCacheRepository.existsById(ID)).thenReturn(true);
-        when(hashOperations.increment(anyString(), anyString(), eq(1L))).thenReturn(1L);
+        var postDto = createPostDto();
+        postDto.setId(2L);
+        var viewDeltas = new LinkedHashMap<Long, Long>();
+        viewDeltas.put(1L, 5L);
+        viewDeltas.put(2L, 3L);
+
+        mockIncrementIfExists(List.of(1L, 0L), List.of(1L));
+        mockLoadThroughStampedeGuard();
+        when(postRetrievalService.getPostsByIds(List.of(2L))).thenReturn(List.of(postDto));
+        when(postCacheMapper.toPostCache(postDto)).thenReturn(createPostCache());
 
         // when - action
-        postCacheService.incrementConcurrentPostLikes(ID);
+        var actualResult = postCacheService.incrementPostViews(viewDeltas);
 
         // then - verify the output
-        verifyNoInteractions(postRetrievalService);
-        verifyNoInteractions(postCacheMapper);
-        verifyNoMoreInteractions(postCacheRepository);
+        assertThat(actualResult).isEmpty();
+        verify(nearCache, never()).evictPost(1L);
+        verify(postCacheRepository, times(1)).saveAll(anyList(), anyLong());
+        verify(redisTemplate, times(1)).execute(eq(incrementIfExistsScript), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of(POST_CACHE_KEY_PREFIX + 2L)), eq(POST_CACHE_VIEWS_FIELD), eq("3"));
     }
 
     @Test
-    void shouldAddCommentToCachePost() {
+    void givenMissWhileLoadInFlightWhenIncrementPostViewsThenLoadOnceWithBothDeltas() {
         // given - precondition
-        var postCache = createPostCache();
-        var comment = createComment();
+        var postDto = createPostDto();
+        postDto.setId(2L);
+
+        mockIncrementIfExists(List.of(0L), List.of(0L), List.of(1L));
+        mockLoadThroughStampedeGuard();
+        when(postRetrievalService.getPostsByIds(List.of(2L))).thenAnswer(invocation -> {
+            postCacheService.incrementPostViews(Map.of(2L, 4L));
+            return List.of(postDto);
+        });
+        when(postCacheMapper.toPostCache(postDto)).thenReturn(createPostCache());
 
-        when(postCacheRepository.findById(ID)).thenReturn(of(postCache));
+        // when - action
+        var actualResult = postCacheService.incrementPostViews(Map.of(2L, 3L));
+
+        // then - verify the output
+        assertThat(actualResult).isEmpty();
+        verify(postRetrievalService, times(1)).getPostsByIds(List.of(2L));
+        verify(redisTemplate, times(1)).execute(eq(incrementIfExistsScript), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of(POST_CACHE_KEY_PREFIX + 2L)), eq(POST_CACHE_VIEWS_FIELD), eq("7"));
+    }
+
+    @Test
+    void givenDeletedMissedPostWhenIncrementPostViewsThenDropItsViews() {
+        // given - precondition
+        mockIncrementIfExists(List.of(0L));
+        mockLoadThroughStampedeGuard();
+        when(postRetrievalService.getPostsByIds(List.of(2L))).thenReturn(List.of());
 
         // when - action
-        postCacheService.addCommentToCachedPost(ID, comment);
+        var actualResult = postCacheService.incrementPostViews(Map.of(2L, 3L));
 
         // then - verify the output
-        assertThat(postCache.getComments()).contains(comment);
+        assertThat(actualResult).isEmpty();
+        verify(redisTemplate, times(1)).execute(eq(incrementIfExistsScript), any(RedisSerializer.class),
+                any(RedisSerializer.class), anyList(), any(Object[].class));
+    }
 
-        verify(postCacheRepository, times(1)).findById(ID);
+    @Test
+    void givenFailingLoadWhenIncrementPostViewsThenReturnOnlyFailedDeltas() {
+        // given - precondition
+        var viewDeltas = new LinkedHashMap<Long, Long>();
+        viewDeltas.put(1L, 5L);
+        viewDeltas.put(3L, 2L);
 
-        verifyNoInteractions(postRetrievalService);
-        verifyNoInteractions(postCacheMapper);
+        mockIncrementIfExists(List.of(1L, 0L));
+        when(stampedeGuard.<PostDto>loadAll(eq(POST_CACHE_KEY_PREFIX), eq(List.of(3L)), any(), any()))
+                .thenThrow(new RuntimeException("Database is down"));
+
+        // when - action
+        var actualResult = postCacheService.incrementPostViews(viewDeltas);
+
+        // then - verify the output
+        assertThat(actualResult).isEqualTo(Map.of(3L, 2L));
+        verifyNoInteractions(postCacheRepository);
     }
 
+    @Test
+    void givenUncachedPostWhenIncrementPostLikesThenLeaveItToPostRow() {
+        // given - precondition
+        mockIncrementIfExists(List.of(0L));
+
+        // when - action
+        postCacheService.incrementPostLikes(Map.of(2L, 4L));
+
+        // then - verify the output
+        verifyNoInteractions(postRetrievalService);
+        verifyNoInteractions(postCacheRepository);
+    }
 
     @Test
-    void shouldReturnPostCachesForGivenPostIds() {
+    void shouldIncrementPostLikesInCache() {
         // given - precondition
-        var postIds = List.of(23L);
-        var expectedResult = List.of(createPostCache());
+        mockIncrementIfExists(List.of(1L));
+
+        // when - action
+        postCacheService.incrementPostLikes(Map.of(ID, 1L));
+
+        // then - verify the output
+        verifyNoInteractions(nearCache);
+        verifyNoInteractions(postRetrievalService);
+        verifyNoInteractions(postCacheMapper);
+        verifyNoInteractions(postCacheRepository);
+    }
 
-        when(postCacheRepository.findAllById(anyList())).thenReturn(expectedResult);
+    @Test
+    void shouldAddCommentToCachePost() throws Exception {
+        // given - precondition
+        var comment = createComment();
 
         // when - action
-        var actualResult = postCacheService.getPostCacheByIds(postIds);
+        postCacheService.addCommentsToCachedPosts(Map.of(ID, List.of(comment)));
 
         // then - verify the output
-        assertThat(actualResult).isNotEmpty();
-        assertThat(actualResult.size()).isEqualTo(expectedResult.size());
-        assertThat(actualResult).containsExactlyElementsOf(expectedResult);
+        verify(redisTemplate, times(1)).execute(eq(commentRingScript), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of(COMMENT_RING_KEY_PREFIX + ID)),
+                eq(String.valueOf(COMMENT_LIMIT_PER_POST)), eq(String.valueOf(POST_CACHE_TTL_SECONDS)),
+                eq(String.valueOf(comment.getId())), eq(objectMapper.writeValueAsString(comment)));
+        verify(nearCache, times(1)).evictPost(ID);
+
+        verifyNoInteractions(postCacheRepository);
+        verifyNoInteractions(postRetrievalService);
+    }
+
+    @Test
+    void givenCommentsOfBatchWhenAddCommentsToCachedPostsThenWriteRingsInOneScriptCall() {
+        // given - precondition
+        var firstComment = createComment();
+        var secondComment = createComment();
+        secondComment.setId(777L);
+        var commentsByPostId = new LinkedHashMap<Long, List<CommentDto>>();
+        commentsByPostId.put(1L, List.of(firstComment, secondComment));
+        commentsByPostId.put(2L, List.of(firstComment));
+
+        // when - action
+        postCacheService.addCommentsToCachedPosts(commentsByPostId);
 
-        verify(postCacheRepository, times(1)).findAllById(postIds);
+        // then - verify the output
+        verify(redisTemplate, times(1)).execute(eq(commentRingScript), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of(COMMENT_RING_KEY_PREFIX + 1L, COMMENT_RING_KEY_PREFIX + 1L,
+                        COMMENT_RING_KEY_PREFIX + 2L)), any(Object[].class));
+        verify(nearCache, times(1)).evictPost(1L);
+        verify(nearCache, times(1)).evictPost(2L);
+        verifyNoInteractions(postCacheRepository);
     }
 
     @Test
@@ -149,5 +273,20 @@ class PostCacheServiceTest {
         // then - verify the output
         assertThat(actualResult).isNotNull();
         assertThat(actualResult).usingRecursiveComparison().isEqualTo(postCache);
+        verify(nearCache, times(1)).evictPost(postCache.getId());
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void mockIncrementIfExists(List<Long> flags, List<Long>... nextFlags) {
+        lenient().when(redisTemplate.execute(eq(incrementIfExistsScript), any(RedisSerializer.class),
+                        any(RedisSerializer.class), anyList(), any(Object[].class)))
+                .thenReturn(flags, nextFlags);
+    }
+
+    private void mockLoadThroughStampedeGuard() {
+        when(stampedeGuard.<PostDto>loadAll(eq(POST_CACHE_KEY_PREFIX), anyList(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Function<List<Long>, Map<Long, PostDto>>>getArgument(3)
+                        .apply(List.copyOf(invocation.<Collection<Long>>getArgument(1))));
     }
-}
\ No newline at end of file
+}
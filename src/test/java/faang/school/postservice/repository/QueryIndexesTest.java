@@ -0,0 +1,108 @@
+package faang.school.postservice.repository;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the changelog against Postgres and checks with EXPLAIN that the repository queries are served by their
+ * indexes. Sequential scans are disabled, since the planner prefers them on near-empty tables: a query still planned
+ * as a sequential scan has no index it can use.
+ */
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryIndexesTest {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRESQL_CONTAINER = new PostgreSQLContainer<>("postgres:13.6");
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void init() throws Exception {
+        var dataSource = new SingleConnectionDataSource(POSTGRESQL_CONTAINER.getJdbcUrl(),
+                POSTGRESQL_CONTAINER.getUsername(), POSTGRESQL_CONTAINER.getPassword(), true);
+
+        var liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("ANALYZE");
+        jdbcTemplate.execute("SET enable_seqscan = off");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void givenRepositoryQueryWhenExplainThenUseIndex(String description, String query, String expectedIndex) {
+        // when - action
+        var plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+
+        // then - verify the output
+        assertThat(plan).contains(expectedIndex);
+    }
+
+    private static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                Arguments.of("published posts of an author",
+                        "SELECT * FROM post WHERE author_id = 1 AND published = true AND deleted = false "
+                                + "ORDER BY published",
+                        "idx_post_author_published"),
+                Arguments.of("published posts of a project",
+                        "SELECT * FROM post WHERE project_id = 1 AND published = true AND deleted = false "
+                                + "ORDER BY published",
+                        "idx_post_project_published"),
+                Arguments.of("posts of an author",
+                        "SELECT * FROM post WHERE author_id = 1",
+                        "idx_post_author_id"),
+                Arguments.of("posts of a project",
+                        "SELECT * FROM post WHERE project_id = 1",
+                        "idx_post_project_id"),
+                Arguments.of("posts of an author with likes",
+                        "SELECT * FROM post p LEFT JOIN likes l ON l.post_id = p.id WHERE p.author_id = 1",
+                        "idx_post_author_id"),
+                Arguments.of("posts of a project with likes",
+                        "SELECT * FROM post p LEFT JOIN likes l ON l.post_id = p.id WHERE p.project_id = 1",
+                        "idx_post_project_id"),
+                Arguments.of("posts ready to publish",
+                        "SELECT * FROM post WHERE published = false AND deleted = false "
+                                + "AND scheduled_at <= CURRENT_TIMESTAMP",
+                        "idx_post_ready_to_publish"),
+                Arguments.of("like of a user on a post",
+                        "SELECT id FROM likes WHERE post_id = 1 AND user_id = 1 AND comment_id IS NULL",
+                        "uq_likes_post_user"),
+                Arguments.of("like of a user on a comment",
+                        "SELECT id FROM likes WHERE comment_id = 1 AND user_id = 1",
+                        "uq_likes_comment_user"),
+                Arguments.of("page of post likers",
+                        "SELECT id, user_id FROM likes WHERE post_id = 1 AND comment_id IS NULL AND id > 0 "
+                                + "ORDER BY id LIMIT 100",
+                        "idx_likes_post_keyset"),
+                Arguments.of("page of comment likers",
+                        "SELECT id, user_id FROM likes WHERE comment_id = 1 AND id > 0 ORDER BY id LIMIT 100",
+                        "idx_likes_comment_keyset"),
+                Arguments.of("comments of a post",
+                        "SELECT * FROM comment WHERE post_id = 1",
+                        "idx_comment_post_id"),
+                Arguments.of("latest comments of posts",
+                        "SELECT * FROM (SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.post_id ORDER BY c.id DESC) "
+                                + "AS position FROM comment c WHERE c.post_id IN (1, 2)) ranked "
+                                + "WHERE ranked.position <= 3",
+                        "idx_comment_post_id")
+        );
+    }
+}
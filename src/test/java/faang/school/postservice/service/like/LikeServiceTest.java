@@ -1,37 +1,45 @@
 package faang.school.postservice.service.like;
 
 import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.config.context.UserContext;
 import faang.school.postservice.dto.comment.CommentDto;
 import faang.school.postservice.dto.like.LikeDto;
 import faang.school.postservice.dto.post.PostDto;
 import faang.school.postservice.dto.user.UserDto;
 import faang.school.postservice.event.LikeEvent;
+import faang.school.postservice.exception.DuplicateLikeException;
 import faang.school.postservice.kafka.EventsGenerator;
 import faang.school.postservice.mapper.CommentMapper;
 import faang.school.postservice.mapper.LikeMapper;
-import faang.school.postservice.mapper.PostMapper;
 import faang.school.postservice.model.Comment;
 import faang.school.postservice.model.Like;
-import faang.school.postservice.model.Post;
 import faang.school.postservice.publisher.LikeEventPublisher;
+import faang.school.postservice.redis.service.LikeMembershipService;
+import faang.school.postservice.repository.CommentRepository;
 import faang.school.postservice.repository.LikeRepository;
+import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.projection.LikerReference;
+import faang.school.postservice.repository.projection.PostReference;
 import faang.school.postservice.service.comment.CommentService;
-import faang.school.postservice.service.post.PostService;
+import faang.school.postservice.service.post.PostRetrievalService;
 import faang.school.postservice.validator.LikeValidator;
-import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static faang.school.postservice.util.TestDataFactory.ID;
-import static faang.school.postservice.util.TestDataFactory.INVALID_ID;
-import static faang.school.postservice.util.TestDataFactory.getUserDtoList;
 import static java.util.Collections.emptyList;
 import static java.util.List.of;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -40,8 +48,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,30 +61,35 @@ class LikeServiceImplTest {
     @Mock
     private LikeRepository likeRepository;
     @Mock
+    private PostRepository postRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
     private LikeMapper likeMapper;
     @Mock
     private LikeEventPublisher likePublisher;
     @Mock
-    private PostService postService;
+    private PostRetrievalService postRetrievalService;
     @Mock
     private CommentService commentService;
     @Mock
-    private PostMapper postMapper;
-    @Mock
     private CommentMapper commentMapper;
     @Mock
     private UserServiceClient userServiceClient;
     @Mock
+    private LikeMembershipService likeMembershipService;
+    @Mock
     private EventsGenerator eventsGenerator;
+    @Mock
+    private PostLikeBatchWriter postLikeBatchWriter;
 
     @InjectMocks
     private LikeServiceImpl likeService;
 
     private LikeDto likeDto;
     private Like like;
-    private Post post;
+    private PostReference postReference;
     private Comment comment;
-    private PostDto postDto;
     private CommentDto commentDto;
 
     @BeforeEach
@@ -93,15 +107,7 @@ class LikeServiceImplTest {
         likes.add(like);
         likes.add(like);
 
-        post = new Post();
-        post.setId(1L);
-        post.setAuthorId(1L);
-        post.setLikes(likes);
-
-        postDto = PostDto.builder()
-                .id(1L)
-                .authorId(1L)
-                .build();
+        postReference = new PostReference(1L, 1L);
         commentDto = CommentDto.builder()
                 .id(1L)
                 .authorId(1L)
@@ -112,37 +118,103 @@ class LikeServiceImplTest {
         comment.setAuthorId(1L);
         comment.setLikes(likes);
         likeService.setBatchSize(100);
+        likeService.setLikersPageSize(1000);
+        ReflectionTestUtils.setField(likeService, "userContext", new UserContext());
+        ReflectionTestUtils.setField(likeService, "likersExecutor", (Executor) Runnable::run);
     }
 
     @Test
     void addPostLike() {
-        when(postService.getPost(anyLong())).thenReturn(postDto);
-        when(postMapper.toEntity(postDto)).thenReturn(post);
+        when(postRetrievalService.getPostReference(anyLong())).thenReturn(postReference);
         when(likeMapper.toEntity(any(LikeDto.class))).thenReturn(like);
         when(likeRepository.save(like)).thenReturn(like);
         when(likeMapper.toDto(any(Like.class))).thenReturn(likeDto);
-        when(postMapper.toDto(post)).thenReturn(postDto);
-        doNothing().when(eventsGenerator).generateAndSendLikeEvent(any(PostDto.class));
 
         LikeDto result = likeService.addPostLike(likeDto);
 
         verify(likeValidator).validateUserExistence(likeDto.getUserId());
-        verify(likeValidator).validateLikeToPost(post, likeDto.getUserId());
+        verify(likeValidator).validateLikeToPost(likeDto.getPostId(), likeDto.getUserId());
         verify(likeRepository).save(like);
+        verify(postRepository).incrementLikeCount(likeDto.getPostId(), 1);
         verify(likePublisher).publish(any(LikeEvent.class));
+        verify(eventsGenerator).generateAndSendLikeEvent(likeDto.getPostId(), postReference.authorId(), 1);
+        verify(eventsGenerator, never()).generateAndSendPostViewEvent(any(PostDto.class));
 
         assertEquals(likeDto, result);
     }
 
+    @Test
+    void givenNewLikerWhenSubmitPostLikeThenQueueLike() {
+        // given - precondition
+        var queued = new CompletableFuture<LikeDto>();
+        when(postLikeBatchWriter.submit(likeDto)).thenReturn(queued);
+
+        // when - action
+        var actualResult = likeService.submitPostLike(likeDto);
+
+        // then - verify the output
+        assertThat(actualResult).isSameAs(queued);
+
+        verify(likeValidator).validateLikeToPost(likeDto.getPostId(), likeDto.getUserId());
+        verifyNoInteractions(likeRepository);
+        verifyNoInteractions(userServiceClient);
+    }
+
     @Test
     void deletePostLike() {
-        when(postService.getPost(anyLong())).thenReturn(postDto);
-        when(postMapper.toEntity(postDto)).thenReturn(post);
-        when(likeMapper.toEntity(any(LikeDto.class))).thenReturn(like);
+        when(postRetrievalService.getPostReference(anyLong())).thenReturn(postReference);
+        when(likeRepository.deleteByPostIdAndUserId(likeDto.getPostId(), likeDto.getUserId())).thenReturn(1L);
+
+        likeService.deletePostLike(likeDto);
+
+        verify(postRepository).incrementLikeCount(likeDto.getPostId(), -1);
+        verify(likeMembershipService).removePostLiker(likeDto.getPostId(), likeDto.getUserId());
+    }
+
+    @Test
+    void givenNoLikeWhenDeletePostLikeThenKeepCounter() {
+        // given - precondition
+        when(postRetrievalService.getPostReference(anyLong())).thenReturn(postReference);
+        when(likeRepository.deleteByPostIdAndUserId(likeDto.getPostId(), likeDto.getUserId())).thenReturn(0L);
 
+        // when - action
         likeService.deletePostLike(likeDto);
 
-        verify(likeRepository).deleteByPostIdAndUserId(likeDto.getPostId(), likeDto.getUserId());
+        // then - verify the output
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void givenUniqueIndexViolationWhenAddPostLikeThenThrowDuplicateLike() {
+        // given - precondition
+        when(postRetrievalService.getPostReference(anyLong())).thenReturn(postReference);
+        when(likeMapper.toEntity(any(LikeDto.class))).thenReturn(like);
+        when(likeRepository.save(like)).thenThrow(new DataIntegrityViolationException("insert failed",
+                new SQLException("duplicate key value violates unique constraint \"uq_likes_post_user\"")));
+
+        // when - action
+        // then - verify the output
+        assertThatThrownBy(() -> likeService.addPostLike(likeDto))
+                .isInstanceOf(DuplicateLikeException.class)
+                .hasMessageContaining("already liked this post");
+
+        verifyNoInteractions(likePublisher);
+        verifyNoInteractions(eventsGenerator);
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void givenOtherIntegrityViolationWhenAddPostLikeThenRethrow() {
+        // given - precondition
+        var violation = new DataIntegrityViolationException("insert failed",
+                new SQLException("insert or update on table \"likes\" violates foreign key constraint \"fk_post_id\""));
+        when(postRetrievalService.getPostReference(anyLong())).thenReturn(postReference);
+        when(likeMapper.toEntity(any(LikeDto.class))).thenReturn(like);
+        when(likeRepository.save(like)).thenThrow(violation);
+
+        // when - action
+        // then - verify the output
+        assertThatThrownBy(() -> likeService.addPostLike(likeDto)).isSameAs(violation);
     }
 
     @Test
@@ -156,8 +228,9 @@ class LikeServiceImplTest {
         LikeDto result = likeService.addCommentLike(likeDto);
 
         verify(likeValidator).validateUserExistence(likeDto.getUserId());
-        verify(likeValidator).validateLikeToComment(comment, likeDto.getUserId());
+        verify(likeValidator).validateLikeToComment(likeDto.getCommentId(), likeDto.getUserId());
         verify(likeRepository).save(like);
+        verify(commentRepository).incrementLikeCount(likeDto.getCommentId(), 1);
         verify(likePublisher).publish(any(LikeEvent.class));
 
         assertEquals(likeDto, result);
@@ -166,78 +239,87 @@ class LikeServiceImplTest {
     @Test
     void deleteCommentLike() {
         when(commentService.getComment(anyLong())).thenReturn(commentDto);
-        when(commentMapper.toEntity(commentDto)).thenReturn(comment);
-        when(likeMapper.toEntity(any(LikeDto.class))).thenReturn(like);
+        when(likeRepository.deleteByCommentIdAndUserId(likeDto.getCommentId(), likeDto.getUserId())).thenReturn(1L);
 
         likeService.deleteCommentLike(likeDto);
 
-        verify(likeRepository).deleteByCommentIdAndUserId(likeDto.getCommentId(), likeDto.getUserId());
+        verify(commentRepository).incrementLikeCount(likeDto.getCommentId(), -1);
+        verify(likeMembershipService).removeCommentLiker(likeDto.getCommentId(), likeDto.getUserId());
     }
 
 
 
     @Test
-    void givenPostIdWhenFindUsersByPostIdThenReturnUsers() {
+    void givenFullPageWhenFindPostLikersThenReturnUsersInLikeOrderWithCursor() {
         // given - precondition
-        List<Like> likeList = of(new Like(), new Like());
-        List<UserDto> userDtoList = getUserDtoList();
-
-        when(likeRepository.findByPostId(ID))
-                .thenReturn(likeList);
-        when(userServiceClient.getUsersByIds(anyList()))
-                .thenReturn(userDtoList);
+        likeService.setBatchSize(2);
+        var likers = of(new LikerReference(11L, 1L), new LikerReference(12L, 2L), new LikerReference(13L, 3L));
+        when(likeRepository.findPostLikersAfter(ID, 10L, PageRequest.ofSize(3))).thenReturn(likers);
+        when(userServiceClient.getUsersByIds(of(1L, 2L))).thenReturn(of(user(1L), user(2L)));
+        when(userServiceClient.getUsersByIds(of(3L))).thenReturn(of(user(3L)));
 
         // when - action
-        var actualResult = likeService.findUsersByPostId(ID);
+        var actualResult = likeService.findPostLikers(ID, 10L, 3);
 
         // then - verify the output
-        assertThat(actualResult).isNotNull();
-        assertThat(actualResult).usingRecursiveFieldByFieldElementComparator()
-                .containsAnyElementsOf(userDtoList);
+        assertThat(actualResult.users()).extracting(UserDto::getId).containsExactly(1L, 2L, 3L);
+        assertThat(actualResult.nextCursor()).isEqualTo(13L);
     }
 
     @Test
-    void givenInvalidPostIdWhenFindUsersByPostIdThenThrowException() {
+    void givenLastPageWhenFindCommentLikersThenReturnNoCursor() {
         // given - precondition
-        when(likeRepository.findByPostId(anyLong()))
-                .thenReturn(emptyList());
+        when(likeRepository.findCommentLikersAfter(ID, 0L, PageRequest.ofSize(100)))
+                .thenReturn(of(new LikerReference(5L, 1L)));
+        when(userServiceClient.getUsersByIds(of(1L))).thenReturn(of(user(1L)));
+
+        // when - action
+        var actualResult = likeService.findCommentLikers(ID, null, 100);
 
-        // when - action and
         // then - verify the output
-        assertThatThrownBy(() -> likeService.findUsersByPostId(INVALID_ID))
-                .isInstanceOf(EntityNotFoundException.class)
-                .hasMessageContaining("No users found for ID " + INVALID_ID);
+        assertThat(actualResult.users()).extracting(UserDto::getId).containsExactly(1L);
+        assertThat(actualResult.nextCursor()).isNull();
     }
 
     @Test
-    void givenCommentIdWhenFindUsersByPostIdThenReturnUsers() {
+    void givenLimitAbovePageSizeWhenFindPostLikersThenClampLimit() {
         // given - precondition
-        List<Like> likeList = of(new Like(), new Like());
-        List<UserDto> userDtoList = getUserDtoList();
-
-        when(likeRepository.findByCommentId(anyLong()))
-                .thenReturn(likeList);
-        when(userServiceClient.getUsersByIds(anyList()))
-                .thenReturn(userDtoList);
+        when(likeRepository.findPostLikersAfter(ID, 0L, PageRequest.ofSize(1000))).thenReturn(emptyList());
 
         // when - action
-        var actualResult = likeService.findUsersByCommentId(ID);
+        var actualResult = likeService.findPostLikers(ID, null, 1_000_000);
 
         // then - verify the output
-        assertThat(actualResult).isNotNull();
-        assertThat(actualResult).usingRecursiveFieldByFieldElementComparator()
-                .containsAnyElementsOf(userDtoList);
+        assertThat(actualResult.users()).isEmpty();
+        assertThat(actualResult.nextCursor()).isNull();
+        verifyNoInteractions(userServiceClient);
     }
+
     @Test
-    void givenInvalidCommentIdWhenFindUsersByPostIdThenThrowException() {
+    void givenSeveralPagesWhenForEachPostLikersPageThenWalkPagesByCursor() {
         // given - precondition
-        when(likeRepository.findByCommentId(anyLong()))
-                .thenReturn(emptyList());
+        likeService.setLikersPageSize(2);
+        when(likeRepository.findPostLikersAfter(ID, 0L, PageRequest.ofSize(2)))
+                .thenReturn(of(new LikerReference(1L, 1L), new LikerReference(2L, 2L)));
+        when(likeRepository.findPostLikersAfter(ID, 2L, PageRequest.ofSize(2)))
+                .thenReturn(of(new LikerReference(3L, 3L)));
+        when(userServiceClient.getUsersByIds(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0)
+                .stream()
+                .map(this::user)
+                .toList());
+        var pages = new ArrayList<List<UserDto>>();
+
+        // when - action
+        likeService.forEachPostLikersPage(ID, pages::add);
 
-        // when - action and
         // then - verify the output
-        assertThatThrownBy(() -> likeService.findUsersByCommentId(INVALID_ID))
-                .isInstanceOf(EntityNotFoundException.class)
-                .hasMessageContaining("No users found for ID " + INVALID_ID);
+        assertThat(pages).hasSize(2);
+        assertThat(pages.get(1)).extracting(UserDto::getId).containsExactly(3L);
+    }
+
+    private UserDto user(Long id) {
+        return UserDto.builder()
+                .id(id)
+                .build();
     }
 }
@@ -0,0 +1,182 @@
+package faang.school.postservice.service.like;
+
+import faang.school.postservice.client.UserServiceClient;
+import faang.school.postservice.dto.like.LikeDto;
+import faang.school.postservice.dto.user.UserDto;
+import faang.school.postservice.exception.DataNotFoundException;
+import faang.school.postservice.exception.DuplicateLikeException;
+import faang.school.postservice.kafka.EventsGenerator;
+import faang.school.postservice.publisher.LikeEventPublisher;
+import faang.school.postservice.redis.service.LikeMembershipService;
+import faang.school.postservice.repository.LikeBatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostLikeBatchWriterTest {
+    private static final long AUTHOR_ID = 50L;
+
+    @Mock
+    private LikeBatchRepository likeBatchRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private UserServiceClient userServiceClient;
+    @Mock
+    private LikeMembershipService likeMembershipService;
+    @Mock
+    private LikeEventPublisher likePublisher;
+    @Mock
+    private EventsGenerator eventsGenerator;
+
+    private PostLikeBatchWriter postLikeBatchWriter;
+
+    @BeforeEach
+    void init() {
+        postLikeBatchWriter = new PostLikeBatchWriter(likeBatchRepository, transactionTemplate, userServiceClient,
+                likeMembershipService, likePublisher, eventsGenerator, 500, 5, 3);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void givenQueuedLikesWhenFlushThenInsertBatchOnceAndNotifyPerPost() {
+        // given - precondition
+        var first = postLike(1L, 7L);
+        var second = postLike(1L, 8L);
+        var third = postLike(2L, 7L);
+        when(userServiceClient.getUsersByIds(List.of(7L, 8L))).thenReturn(List.of(user(7L), user(8L)));
+        when(likeBatchRepository.findPostAuthors(Set.of(1L, 2L))).thenReturn(Map.of(1L, AUTHOR_ID, 2L, AUTHOR_ID));
+        when(likeBatchRepository.insertPostLikes(List.of(first, second, third))).thenReturn(List.of(
+                insertedLike(101L, 1L, 7L), insertedLike(102L, 1L, 8L), insertedLike(103L, 2L, 7L)));
+
+        var firstResult = postLikeBatchWriter.submit(first);
+        var secondResult = postLikeBatchWriter.submit(second);
+        var thirdResult = postLikeBatchWriter.submit(third);
+
+        // when - action
+        postLikeBatchWriter.flush();
+
+        // then - verify the output
+        assertThat(firstResult.join().getId()).isEqualTo(101L);
+        assertThat(secondResult.join().getId()).isEqualTo(102L);
+        assertThat(thirdResult.join().getId()).isEqualTo(103L);
+
+        verify(likeBatchRepository, times(1)).insertPostLikes(anyList());
+        verify(likeBatchRepository, times(1)).incrementPostLikeCounts(new TreeMap<>(Map.of(1L, 2, 2L, 1)));
+        verify(likePublisher, times(1)).publishAll(argThat(events -> events.size() == 3));
+        verify(eventsGenerator, times(1)).generateAndSendLikeEvent(1L, AUTHOR_ID, 2);
+        verify(eventsGenerator, times(1)).generateAndSendLikeEvent(2L, AUTHOR_ID, 1);
+    }
+
+    @Test
+    void givenUnknownPostAndExistingLikeWhenFlushThenRejectThem() {
+        // given - precondition
+        var missingPost = postLike(3L, 7L);
+        var existing = postLike(1L, 7L);
+        when(userServiceClient.getUsersByIds(List.of(7L))).thenReturn(List.of(user(7L)));
+        when(likeBatchRepository.findPostAuthors(Set.of(1L, 3L))).thenReturn(Map.of(1L, AUTHOR_ID));
+        when(likeBatchRepository.insertPostLikes(List.of(existing))).thenReturn(List.of());
+
+        var missingPostResult = postLikeBatchWriter.submit(missingPost);
+        var existingResult = postLikeBatchWriter.submit(existing);
+
+        // when - action
+        postLikeBatchWriter.flush();
+
+        // then - verify the output
+        assertThatThrownBy(missingPostResult::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(DataNotFoundException.class);
+        assertThatThrownBy(existingResult::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(DuplicateLikeException.class);
+
+        verify(likeMembershipService, times(1)).removePostLiker(3L, 7L);
+        verify(likeMembershipService, never()).removePostLiker(1L, 7L);
+        verify(eventsGenerator, never()).generateAndSendLikeEvent(any(), any(), anyInt());
+    }
+
+    @Test
+    void givenInsertFailureWhenFlushThenFailAllAndForgetLikers() {
+        // given - precondition
+        var like = postLike(1L, 7L);
+        var failure = new QueryTimeoutException("timeout");
+        when(userServiceClient.getUsersByIds(List.of(7L))).thenReturn(List.of(user(7L)));
+        when(likeBatchRepository.findPostAuthors(anyCollection())).thenReturn(Map.of(1L, AUTHOR_ID));
+        when(likeBatchRepository.insertPostLikes(anyList())).thenThrow(failure);
+
+        var result = postLikeBatchWriter.submit(like);
+
+        // when - action
+        postLikeBatchWriter.flush();
+
+        // then - verify the output
+        assertThatThrownBy(result::join).hasCause(failure);
+
+        verify(likeMembershipService, times(1)).removePostLiker(1L, 7L);
+        verifyNoInteractions(likePublisher);
+    }
+
+    @Test
+    void givenFullQueueWhenSubmitThenRejectAndForgetLiker() {
+        // given - precondition
+        postLikeBatchWriter.submit(postLike(1L, 1L));
+        postLikeBatchWriter.submit(postLike(1L, 2L));
+        postLikeBatchWriter.submit(postLike(1L, 3L));
+
+        // when - action
+        var actualResult = postLikeBatchWriter.submit(postLike(1L, 4L));
+
+        // then - verify the output
+        assertThatThrownBy(actualResult::join).hasCauseInstanceOf(RejectedExecutionException.class);
+
+        verify(likeMembershipService, times(1)).removePostLiker(1L, 4L);
+    }
+
+    private static LikeDto postLike(Long postId, Long userId) {
+        return LikeDto.builder()
+                .postId(postId)
+                .userId(userId)
+                .build();
+    }
+
+    private static LikeDto insertedLike(Long id, Long postId, Long userId) {
+        return LikeDto.builder()
+                .id(id)
+                .postId(postId)
+                .userId(userId)
+                .build();
+    }
+
+    private static UserDto user(Long id) {
+        return UserDto.builder()
+                .id(id)
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package faang.school.postservice.service.post;
+
+import faang.school.postservice.dto.comment.CommentDto;
+import faang.school.postservice.dto.post.PostDto;
+import faang.school.postservice.mapper.CommentMapper;
+import faang.school.postservice.mapper.PostMapper;
+import faang.school.postservice.model.Post;
+import faang.school.postservice.redis.cache.NearCache;
+import faang.school.postservice.redis.model.PostCache;
+import faang.school.postservice.redis.repository.PostCacheRepository;
+import faang.school.postservice.repository.CommentRepository;
+import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.projection.CommentPreview;
+import faang.school.postservice.repository.projection.PostReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostRetrievalServiceTest {
+    private static final int COMMENTS_PER_POST = 3;
+
+    @InjectMocks
+    private PostRetrievalService postRetrievalService;
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private PostMapper postMapper;
+    @Mock
+    private CommentMapper commentMapper;
+    @Mock
+    private NearCache nearCache;
+    @Mock
+    private PostCacheRepository postCacheRepository;
+
+    @BeforeEach
+    void init() {
+        ReflectionTestUtils.setField(postRetrievalService, "commentLimitPerPost", COMMENTS_PER_POST);
+    }
+
+    @Test
+    void givenPostIdsWhenGetPostsByIdsThenAttachLatestCommentsWithOneQuery() {
+        // given - precondition
+        var firstPost = Post.builder().id(1L).build();
+        var secondPost = Post.builder().id(2L).build();
+        var firstPostDto = PostDto.builder().id(1L).build();
+        var secondPostDto = PostDto.builder().id(2L).build();
+        var commentPreview = mock(CommentPreview.class);
+        var commentDto = CommentDto.builder().id(10L).postId(1L).build();
+
+        when(postRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(firstPost, secondPost));
+        when(postMapper.toDto(firstPost)).thenReturn(firstPostDto);
+        when(postMapper.toDto(secondPost)).thenReturn(secondPostDto);
+        when(commentPreview.getPostId()).thenReturn(1L);
+        when(commentRepository.findLatestByPostIds(List.of(1L, 2L), COMMENTS_PER_POST))
+                .thenReturn(List.of(commentPreview));
+        when(commentMapper.toDto(commentPreview)).thenReturn(commentDto);
+
+        // when - action
+        var actualResult = postRetrievalService.getPostsByIds(List.of(1L, 2L));
+
+        // then - verify the output
+        assertThat(actualResult).containsExactly(firstPostDto, secondPostDto);
+        assertThat(firstPostDto.getComments()).containsExactly(commentDto);
+        assertThat(secondPostDto.getComments()).isEmpty();
+
+        verify(commentRepository, times(1)).findLatestByPostIds(List.of(1L, 2L), COMMENTS_PER_POST);
+    }
+
+    @Test
+    void givenCachedPostWhenGetPostReferenceThenSkipDatabase() {
+        // given - precondition
+        when(nearCache.getPosts(List.of(1L))).thenReturn(Map.of());
+        when(postCacheRepository.findById(1L)).thenReturn(Optional.of(PostCache.builder().id(1L).authorId(5L).build()));
+
+        // when - action
+        var actualResult = postRetrievalService.getPostReference(1L);
+
+        // then - verify the output
+        assertThat(actualResult).isEqualTo(new PostReference(1L, 5L));
+
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void givenUncachedPostWhenGetPostReferenceThenQueryReference() {
+        // given - precondition
+        when(nearCache.getPosts(List.of(1L))).thenReturn(Map.of());
+        when(postCacheRepository.findById(1L)).thenReturn(Optional.empty());
+        when(postRepository.findReferenceById(1L)).thenReturn(Optional.of(new PostReference(1L, 5L)));
+
+        // when - action
+        var actualResult = postRetrievalService.getPostReference(1L);
+
+        // then - verify the output
+        assertThat(actualResult).isEqualTo(new PostReference(1L, 5L));
+
+        verify(postRepository, never()).findById(1L);
+    }
+
+    @Test
+    void givenMissingPostWhenGetPostReferenceThenThrowException() {
+        // given - precondition
+        when(nearCache.getPosts(List.of(1L))).thenReturn(Map.of());
+        when(postCacheRepository.findById(1L)).thenReturn(Optional.empty());
+        when(postRepository.findReferenceById(1L)).thenReturn(Optional.empty());
+
+        // when - action
+        // then - verify the output
+        assertThatThrownBy(() -> postRetrievalService.getPostReference(1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Post not found");
+    }
+}
@@ -7,7 +7,9 @@ import faang.school.postservice.mapper.PostMapper;
 import faang.school.postservice.model.Post;
 import faang.school.postservice.redis.service.AuthorCacheService;
 import faang.school.postservice.redis.service.PostCacheService;
+import faang.school.postservice.repository.CommentRepository;
 import faang.school.postservice.repository.PostRepository;
+import faang.school.postservice.repository.projection.CommentPreview;
 import faang.school.postservice.util.TestDataFactory;
 import faang.school.postservice.validator.PostServiceValidator;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +36,7 @@ import static faang.school.postservice.controller.post.PostMock.generatePostDto;
 import static faang.school.postservice.controller.post.PostMock.newContent;
 import static faang.school.postservice.controller.post.PostMock.postId;
 import static faang.school.postservice.controller.post.PostMock.projectId;
+import static faang.school.postservice.util.TestDataFactory.COMMENT_LIMIT_PER_POST;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -41,6 +44,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -51,6 +55,8 @@ public class PostServiceTest {
     @Mock
     private PostRepository postRepository;
     @Mock
+    private CommentRepository commentRepository;
+    @Mock
     private PostServiceValidator<PostDto> validator;
     @Spy
     private PostMapper postMapper = Mappers.getMapper(PostMapper.class);
@@ -69,6 +75,7 @@ public class PostServiceTest {
     public void setUp() {
         // Injecting the CommentMapper mock into the PostMapper
         ReflectionTestUtils.setField(postMapper, "commentMapper", commentMapper);
+        ReflectionTestUtils.setField(service, "commentLimitPerPost", COMMENT_LIMIT_PER_POST);
     }
 
     @Test
@@ -123,7 +130,7 @@ public class PostServiceTest {
 
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
         when(postRepository.save(post)).thenReturn(post);
-        doNothing().when(authorCacheService).saveAuthorCache(anyLong());
+        doNothing().when(authorCacheService).refreshAuthorIfStale(anyLong());
         when(postCacheService.savePostCache(any(PostDto.class))).thenReturn(postCache);
         doNothing().when(eventsGenerator).savePostCacheAndSendPostFollowersEvent(any(PostDto.class));
 
@@ -277,6 +284,34 @@ public class PostServiceTest {
         assertEquals(expectedPost.getContent(), actual.getContent());
     }
 
+    @Test
+    @DisplayName("Get post and filtered posts return the latest comments of each post")
+    public void testGetPostAndFilteredPostsWithLatestComments() {
+        // Arrange
+        var firstComment = mockCommentPreview(1L);
+        var secondComment = mockCommentPreview(2L);
+        var comment = TestDataFactory.createComment();
+
+        when(postRepository.findById(postId)).thenReturn(Optional.of(generatePost(authorId, null, true, content)));
+        when(postRepository.findByAuthorIdAndPublishedAndDeletedIsFalseOrderByPublished(authorId, true))
+                .thenReturn(generateFilteredPosts(authorId, null, true));
+        when(commentRepository.findLatestByPostIds(List.of(postId), COMMENT_LIMIT_PER_POST))
+                .thenReturn(List.of(firstComment));
+        when(commentRepository.findLatestByPostIds(List.of(1L, 2L), COMMENT_LIMIT_PER_POST))
+                .thenReturn(List.of(firstComment, secondComment));
+        when(commentMapper.toDto(any(CommentPreview.class))).thenReturn(comment);
+
+        // Act
+        PostDto post = service.getPost(postId);
+        List<PostDto> filteredPosts = service.getFilteredPosts(authorId, null, true);
+
+        // Assert
+        assertEquals(List.of(comment), post.getComments());
+        assertEquals(List.of(comment), filteredPosts.get(0).getComments());
+        assertEquals(List.of(comment), filteredPosts.get(1).getComments());
+        verify(commentRepository, times(1)).findLatestByPostIds(List.of(1L, 2L), COMMENT_LIMIT_PER_POST);
+    }
+
     @Test
     @DisplayName("Get post should throw an error when the post is not found")
     public void testGetPostNotFound() {
@@ -334,4 +369,10 @@ public class PostServiceTest {
         // Assert
         assertEquals(new ArrayList<>(), actual);
     }
+
+    private static CommentPreview mockCommentPreview(Long postId) {
+        var commentPreview = mock(CommentPreview.class);
+        when(commentPreview.getPostId()).thenReturn(postId);
+        return commentPreview;
+    }
 }
@@ -25,9 +25,10 @@ public final class TestDataFactory {
 
     public static final Long INVALID_ID = MAX_VALUE;
 
-    public final static String POST_CACHE_VIEWS_FIELD = "view";
+    public final static String POST_CACHE_VIEWS_FIELD = "views";
     public final static String POST_CACHE_LIKES_FIELD = "likes";
-    public final static String POST_CACHE_KEY_PREFIX = "post:";
+    public final static String POST_CACHE_KEY_PREFIX = "posts:";
+    public final static String AUTHOR_CACHE_KEY_PREFIX = "author:";
     public final static int COMMENT_LIMIT_PER_POST = 3;
 
 
@@ -39,6 +40,12 @@ public final class TestDataFactory {
     public static final String FEED_PREFIX = "feed:";
     public static final int POSTS_PER_PAGE = 20;
     public static final Long MOCK_FEED_SIZE = 500L;
+    public static final int FAN_OUT_CHUNK_SIZE = 2;
+    public static final int CELEBRITY_THRESHOLD = 10000;
+    public static final Long CELEBRITY_ID = 7L;
+    public static final String TIMELINE_PREFIX = "timeline:";
+    public static final String CELEBRITIES_KEY = "celebrities";
+    public static final String FAN_OUT_MARKER_PREFIX = "fanout:";
     public final static int MAX_POSTS_IN_HEAT_FEED = 500;
 
     public static final LocalDateTime PUBLISHED_AT = LocalDateTime.now().minusMonths(3);
@@ -94,6 +101,12 @@ public final class TestDataFactory {
                 .build();
     }
 
+    public static PostCache createPostCacheWithoutComments(){
+        var postCache = createPostCache();
+        postCache.setComments(null);
+        return postCache;
+    }
+
     public static CommentDto createComment(){
         return CommentDto.builder()
                 .id(1L)
@@ -123,6 +136,6 @@ public final class TestDataFactory {
 
     public static FeedDto creatFeedDto(){
         var postDto = createPostDto();
-        return new FeedDto(111L, of(postDto));
+        return new FeedDto(111L, of(new FeedDto.FeedEntry(postDto.getId(), (long) EXPECTED_SCORE)));
     }
 }